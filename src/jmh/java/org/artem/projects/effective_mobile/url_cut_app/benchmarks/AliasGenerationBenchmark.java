@@ -0,0 +1,51 @@
+package org.artem.projects.effective_mobile.url_cut_app.benchmarks;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.artem.projects.effective_mobile.url_cut_app.alias.IdBlockAllocator;
+import org.artem.projects.effective_mobile.url_cut_app.alias.RandomAliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.alias.ScrambledAliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.alias.SequenceAliasGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AliasGenerationBenchmark {
+    private RandomAliasGenerator randomAliasGenerator;
+    private SequenceAliasGenerator sequenceAliasGenerator;
+    private ScrambledAliasGenerator scrambledAliasGenerator;
+
+    @Setup
+    public void setUp() {
+        randomAliasGenerator = new RandomAliasGenerator(10);
+        sequenceAliasGenerator = new SequenceAliasGenerator(
+                new IdBlockAllocator(BenchmarkSupport.inMemorySequence(10_000)));
+        scrambledAliasGenerator = new ScrambledAliasGenerator(
+                new IdBlockAllocator(BenchmarkSupport.inMemorySequence(10_000)), 42L);
+    }
+
+    @Benchmark
+    public String randomStringUtils50() {
+        return RandomStringUtils.random(50, true, true);
+    }
+
+    @Benchmark
+    public String random10() {
+        return randomAliasGenerator.nextAlias();
+    }
+
+    @Benchmark
+    public String sequence() {
+        return sequenceAliasGenerator.nextAlias();
+    }
+
+    @Benchmark
+    public String scrambled() {
+        return scrambledAliasGenerator.nextAlias();
+    }
+}
@@ -0,0 +1,45 @@
+package org.artem.projects.effective_mobile.url_cut_app.benchmarks;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class BenchmarkSupport {
+    private BenchmarkSupport() {
+    }
+
+    static JdbcTemplate inMemorySequence(long increment) {
+        AtomicLong sequence = new AtomicLong(1 - increment);
+        return new JdbcTemplate() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T queryForObject(String sql, Class<T> requiredType) {
+                return (T) Long.valueOf(sequence.addAndGet(increment));
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+                return (T) Long.valueOf(increment);
+            }
+        };
+    }
+
+    static URLRepository inMemoryRepository(Map<String, UrlTarget> targets) {
+        return (URLRepository) Proxy.newProxyInstance(URLRepository.class.getClassLoader(),
+                new Class<?>[]{URLRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findTargetByAlias" -> Optional.ofNullable(targets.get((String) args[0]));
+                    case "existsByAlias" -> targets.containsKey((String) args[0]);
+                    case "insertIfAliasAbsent" -> targets.putIfAbsent((String) args[1], new UrlTarget((String) args[0],
+                            (LocalDateTime) args[3], RedirectType.fromName((String) args[4]))) == null ? 1 : 0;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
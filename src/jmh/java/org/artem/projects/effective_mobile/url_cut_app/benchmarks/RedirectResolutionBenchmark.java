@@ -0,0 +1,52 @@
+package org.artem.projects.effective_mobile.url_cut_app.benchmarks;
+
+import org.artem.projects.effective_mobile.url_cut_app.cache.UrlCache;
+import org.artem.projects.effective_mobile.url_cut_app.dto.RedirectResolution;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.service.URLServiceImpl;
+import org.artem.projects.effective_mobile.url_cut_app.service.UrlServiceFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedirectResolutionBenchmark {
+    private static final int ALIASES = 10_000;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private URLServiceImpl urlService;
+    private String[] aliases;
+
+    @Setup
+    public void setUp() {
+        Map<String, UrlTarget> targets = new HashMap<>();
+        aliases = new String[ALIASES];
+        for (int i = 0; i < ALIASES; i++) {
+            aliases[i] = "alias" + i;
+            targets.put(aliases[i], new UrlTarget("https://example.com/" + i,
+                    i % 2 == 0 ? null : LocalDateTime.now().plusDays(1), null));
+        }
+
+        urlService = UrlServiceFactory.urlService()
+                .urlRepository(BenchmarkSupport.inMemoryRepository(targets))
+                .urlCache(new UrlCache(cached ? ALIASES : 0, Duration.ofMinutes(10)))
+                .build();
+    }
+
+    @Benchmark
+    public RedirectResolution resolveAlias() {
+        return urlService.resolveAlias(aliases[ThreadLocalRandom.current().nextInt(ALIASES)]);
+    }
+}
@@ -0,0 +1,48 @@
+package org.artem.projects.effective_mobile.url_cut_app.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestJsonBenchmark {
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private CreatingShortedUrlRequest request;
+    private String json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        reader = objectMapper.readerFor(CreatingShortedUrlRequest.class);
+        writer = objectMapper.writerFor(CreatingShortedUrlRequest.class);
+        request = CreatingShortedUrlRequest.builder()
+                .url("https://www.google.com/search?q=url+shortener")
+                .alias("super-google")
+                .expiredAfter(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .build();
+        json = writer.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public CreatingShortedUrlRequest deserialize() throws JsonProcessingException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return writer.writeValueAsString(request);
+    }
+}
@@ -0,0 +1,54 @@
+package org.artem.projects.effective_mobile.url_cut_app.benchmarks;
+
+import org.artem.projects.effective_mobile.url_cut_app.alias.AliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.alias.IdBlockAllocator;
+import org.artem.projects.effective_mobile.url_cut_app.alias.RandomAliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.alias.SequenceAliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.service.URLServiceImpl;
+import org.artem.projects.effective_mobile.url_cut_app.service.UrlServiceFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortenBenchmark {
+    private static final CreatingShortedUrlRequest REQUEST = CreatingShortedUrlRequest.builder()
+            .url("https://example.com/some/long/path?with=query")
+            .build();
+
+    @Param({"random", "sequence"})
+    public String aliasStrategy;
+
+    private final Map<String, UrlTarget> targets = new ConcurrentHashMap<>();
+    private URLServiceImpl urlService;
+
+    @Setup
+    public void setUp() {
+        AliasGenerator aliasGenerator = aliasStrategy.equals("sequence")
+                ? new SequenceAliasGenerator(new IdBlockAllocator(BenchmarkSupport.inMemorySequence(10_000)))
+                : new RandomAliasGenerator(10);
+        urlService = UrlServiceFactory.urlService()
+                .urlRepository(BenchmarkSupport.inMemoryRepository(targets))
+                .aliasGenerator(aliasGenerator)
+                .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        targets.clear();
+    }
+
+    @Benchmark
+    public String shorten() {
+        return urlService.shorten(REQUEST);
+    }
+}
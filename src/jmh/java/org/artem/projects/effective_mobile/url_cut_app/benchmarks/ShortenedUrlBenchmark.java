@@ -0,0 +1,40 @@
+package org.artem.projects.effective_mobile.url_cut_app.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortenedUrlBenchmark {
+    @Param({"3dv8lLR", "3QJsiG1RIRdcr5Nq9FeKrTQIbbX1kviNkgn9eHEUpuYGFkIcNl"})
+    public String alias;
+
+    private String domainUrl;
+    private String prefix;
+
+    @Setup
+    public void setUp() {
+        domainUrl = "localhost:8080/api/v1/super-url-cutter";
+        prefix = "http://" + domainUrl + "/";
+    }
+
+    @Benchmark
+    public String concatenation() {
+        return "http://" + domainUrl + "/" + alias;
+    }
+
+    @Benchmark
+    public String precomputedPrefix() {
+        return prefix + alias;
+    }
+
+    @Benchmark
+    public String stringBuilder() {
+        return new StringBuilder(prefix.length() + alias.length()).append(prefix).append(alias).toString();
+    }
+}
@@ -0,0 +1,70 @@
+package org.artem.projects.effective_mobile.url_cut_app.benchmarks;
+
+import org.artem.projects.effective_mobile.url_cut_app.cache.UrlCache;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.snapshot.SnapshotFile;
+import org.artem.projects.effective_mobile.url_cut_app.snapshot.SnapshotWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlSnapshotBenchmark {
+    @Param({"100000", "1000000"})
+    public int links;
+
+    @Param({"snapshot", "cache"})
+    public String store;
+
+    private Path file;
+    private Function<String, UrlTarget> lookup;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (store.equals("snapshot")) {
+            file = Files.createTempFile("urls", ".snapshot");
+            try (SnapshotWriter writer = new SnapshotWriter(file)) {
+                for (int i = 0; i < links; i++)
+                    writer.add(alias(i), target(i));
+                writer.finish(links, System.currentTimeMillis());
+            }
+            lookup = SnapshotFile.open(file)::find;
+        } else {
+            UrlCache urlCache = new UrlCache(links, Duration.ofHours(1));
+            for (int i = 0; i < links; i++)
+                urlCache.put(alias(i), target(i));
+            lookup = urlCache::get;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (file != null)
+            Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public UrlTarget find() {
+        return lookup.apply(alias(ThreadLocalRandom.current().nextInt(links)));
+    }
+
+    private static String alias(int i) {
+        return Integer.toString(i, 36);
+    }
+
+    private static UrlTarget target(int i) {
+        return new UrlTarget("https://example.com/" + i, i % 2 == 0 ? null : LocalDateTime.now().plusDays(1), null);
+    }
+}
@@ -0,0 +1,16 @@
+package org.artem.projects.effective_mobile.url_cut_app.loadtest;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record BulkShortenReport(Instant startedAt,
+                                int bulkItems,
+                                Map<String, Throughput> operations) {
+    public record Throughput(long requests,
+                             long links,
+                             long errors,
+                             double errorRate,
+                             double durationSeconds,
+                             double linksPerSecond) {
+    }
+}
@@ -0,0 +1,127 @@
+package org.artem.projects.effective_mobile.url_cut_app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ShortenResult;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures link creation throughput of one client sending requests back to back: single
+ * {@code POST /shorten} calls, then {@code /shorten/bulk} requests as a JSON array and as NDJSON.
+ * Each kind is warmed up with a few unmeasured requests first.
+ */
+class BulkShortenScenario {
+    private static final String SINGLE = "single";
+    private static final String BULK_JSON = "bulk-json";
+    private static final String BULK_NDJSON = "bulk-ndjson";
+    private static final int SINGLE_WARMUP_REQUESTS = 100;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LoadTestSettings settings;
+    private long createdLinks;
+
+    BulkShortenScenario(String baseUrl, LoadTestSettings settings) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+    }
+
+    BulkShortenReport run() throws Exception {
+        Instant startedAt = Instant.now();
+        Map<String, BulkShortenReport.Throughput> operations = new LinkedHashMap<>();
+        operations.put(SINGLE, measure(SINGLE_WARMUP_REQUESTS, settings.bulkSingleRequests(), this::shortenOne));
+        operations.put(BULK_JSON, measure(1, settings.bulkRequests(), this::shortenJsonArray));
+        operations.put(BULK_NDJSON, measure(1, settings.bulkRequests(), this::shortenNdjson));
+        return new BulkShortenReport(startedAt, settings.bulkItems(), operations);
+    }
+
+    private BulkShortenReport.Throughput measure(int warmupRequests, int requests, Request request) throws Exception {
+        for (int i = 0; i < warmupRequests; i++)
+            request.send();
+
+        long links = 0;
+        long errors = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            Outcome outcome = request.send();
+            links += outcome.links();
+            errors += outcome.errors();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new BulkShortenReport.Throughput(requests, links, errors, links == 0 ? 0 : (double) errors / links,
+                seconds, links / seconds);
+    }
+
+    private Outcome shortenOne() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/shorten"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"url\": \"" + nextUrl() + "\"}"))
+                .build();
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        return new Outcome(1, status == 200 ? 0 : 1);
+    }
+
+    private Outcome shortenJsonArray() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < settings.bulkItems(); i++)
+            body.append(i == 0 ? "" : ",").append("{\"url\": \"").append(nextUrl()).append("\"}");
+        HttpResponse<String> response = httpClient.send(bulkRequest("application/json", body.append(']').toString()),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200)
+            return new Outcome(settings.bulkItems(), settings.bulkItems());
+        return outcome(objectMapper.readValue(response.body(), ShortenResult[].class));
+    }
+
+    private Outcome shortenNdjson() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < settings.bulkItems(); i++)
+            body.append("{\"url\": \"").append(nextUrl()).append("\"}\n");
+        HttpResponse<String> response = httpClient.send(bulkRequest("application/x-ndjson", body.toString()),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200)
+            return new Outcome(settings.bulkItems(), settings.bulkItems());
+        String[] lines = response.body().lines().filter(line -> !line.isBlank()).toArray(String[]::new);
+        ShortenResult[] results = new ShortenResult[lines.length];
+        for (int i = 0; i < lines.length; i++)
+            results[i] = objectMapper.readValue(lines[i], ShortenResult.class);
+        return outcome(results);
+    }
+
+    private HttpRequest bulkRequest(String contentType, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/shorten/bulk"))
+                .header("Content-Type", contentType)
+                .timeout(Duration.ofMinutes(5))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // Items without a result, or with an error in theirs, count as errors
+    private Outcome outcome(ShortenResult[] results) {
+        long failed = settings.bulkItems() - results.length;
+        for (ShortenResult result : results)
+            if (result.error() != null)
+                failed++;
+        return new Outcome(settings.bulkItems(), failed);
+    }
+
+    private String nextUrl() {
+        return "https://example.com/bulk/" + ++createdLinks;
+    }
+
+    private interface Request {
+        Outcome send() throws Exception;
+    }
+
+    private record Outcome(long links, long errors) {
+    }
+}
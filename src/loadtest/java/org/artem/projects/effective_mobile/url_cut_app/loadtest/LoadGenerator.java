@@ -0,0 +1,98 @@
+package org.artem.projects.effective_mobile.url_cut_app.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+class LoadGenerator {
+    private static final String REDIRECT = "redirect";
+    private static final String SHORTEN = "shorten";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong createdLinks = new AtomicLong();
+    private final String baseUrl;
+    private final List<String> aliases;
+    private final ZipfDistribution popularity;
+    private final LoadTestSettings settings;
+
+    LoadGenerator(String baseUrl, List<String> aliases, LoadTestSettings settings) {
+        this.baseUrl = baseUrl;
+        this.aliases = aliases;
+        this.popularity = new ZipfDistribution(aliases.size(), settings.zipfExponent());
+        this.settings = settings;
+    }
+
+    LoadTestReport run(Duration duration) throws Exception {
+        Instant startedAt = Instant.now();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        List<Future<Map<String, OperationStats>>> results = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency(); i++)
+            results.add(workers.submit(() -> work(deadline)));
+
+        Map<String, OperationStats> merged = new LinkedHashMap<>();
+        merged.put(REDIRECT, new OperationStats());
+        merged.put(SHORTEN, new OperationStats());
+        for (Future<Map<String, OperationStats>> result : results)
+            result.get().forEach((operation, stats) -> merged.get(operation).add(stats));
+        workers.shutdown();
+
+        double seconds = Duration.between(startedAt, Instant.now()).toNanos() / 1e9;
+        OperationStats total = new OperationStats();
+        merged.values().forEach(total::add);
+
+        Map<String, LoadTestReport.OperationReport> operations = new LinkedHashMap<>();
+        merged.forEach((operation, stats) -> operations.put(operation, stats.toReport(seconds)));
+        return new LoadTestReport(startedAt, settings, seconds, total.toReport(seconds), operations);
+    }
+
+    private Map<String, OperationStats> work(long deadline) {
+        OperationStats redirects = new OperationStats();
+        OperationStats shortens = new OperationStats();
+        while (System.nanoTime() < deadline) {
+            boolean shorten = ThreadLocalRandom.current().nextDouble() < settings.shortenRatio();
+            HttpRequest request = shorten ? shortenRequest() : redirectRequest();
+
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                success = shorten ? status == 200 : status / 100 == 3;
+            } catch (Exception e) {
+                success = false;
+            }
+            (shorten ? shortens : redirects).record(System.nanoTime() - start, success);
+        }
+        return Map.of(REDIRECT, redirects, SHORTEN, shortens);
+    }
+
+    private HttpRequest redirectRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/" + aliases.get(popularity.sample())))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest shortenRequest() {
+        String body = "{\"url\": \"https://example.com/load/" + createdLinks.incrementAndGet() + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/shorten"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package org.artem.projects.effective_mobile.url_cut_app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ShortenResult;
+import org.artem.projects.effective_mobile.url_cut_app.service.URLService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"service.sweeper.enabled=false", "service.alias-filter.enabled=true"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+abstract class LoadTest {
+    static final EmbeddedPostgres postgres;
+
+    static {
+        try {
+            postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(LoadTest::closePostgres));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        String url = postgres.getJdbcUrl("postgres", "postgres");
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.flyway.url", () -> url);
+        registry.add("spring.flyway.user", () -> "postgres");
+        registry.add("spring.flyway.password", () -> "");
+    }
+
+    private static void closePostgres() {
+        try {
+            postgres.close();
+        } catch (IOException e) {
+            log.warn("Could not stop embedded PostgreSQL", e);
+        }
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    URLService urlService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    /**
+     * Name of the web runtime under test, also used as the report file name.
+     */
+    protected abstract String mode();
+
+    @Test
+    void redirectAndShortenMix() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        seedExtraRows(settings.extraRows());
+        List<String> aliases = seedAliases(settings.aliases());
+
+        LoadGenerator generator = new LoadGenerator(baseUrl(), aliases, settings);
+        generator.run(settings.warmup());
+        LoadTestReport report = generator.run(settings.duration());
+        writeReport(settings, mode() + ".json", report, report.operations());
+
+        assertTrue(report.total().errorRate() <= settings.maxErrorRate(),
+                "Error rate " + report.total().errorRate() + " exceeds " + settings.maxErrorRate());
+    }
+
+    @Test
+    void bulkShorten() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        BulkShortenReport report = new BulkShortenScenario(baseUrl(), settings).run();
+        writeReport(settings, mode() + "-bulk.json", report, report.operations());
+
+        report.operations().forEach((operation, throughput) -> assertTrue(throughput.errorRate() <= settings.maxErrorRate(),
+                operation + " error rate " + throughput.errorRate() + " exceeds " + settings.maxErrorRate()));
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + port + "/api/v1/super-url-cutter";
+    }
+
+    private void writeReport(LoadTestSettings settings, String name, Object report, Object summary) throws IOException {
+        File reportFile = new File(settings.reportDir(), name);
+        reportFile.getParentFile().mkdirs();
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        objectMapper.writeValue(reportFile, report);
+        log.info("{} load test report written to {}:\n{}", mode(), reportFile.getAbsolutePath(),
+                objectMapper.writeValueAsString(summary));
+    }
+
+    private List<String> seedAliases(int count) {
+        List<String> aliases = new ArrayList<>(count);
+        for (int from = 0; from < count; from += 1000) {
+            List<CreatingShortedUrlRequest> requests = IntStream.range(from, Math.min(from + 1000, count))
+                    .mapToObj(i -> CreatingShortedUrlRequest.builder().url("https://example.com/seed/" + i).build())
+                    .toList();
+            for (ShortenResult result : urlService.shortenAll(requests))
+                aliases.add(result.shortenedUrl().substring(result.shortenedUrl().lastIndexOf('/') + 1));
+        }
+        return aliases;
+    }
+
+    private void seedExtraRows(long rows) {
+        if (rows > 0)
+            jdbcTemplate.update("""
+                    insert into urldependencies (original_url, alias, shortened_url)
+                    select 'https://example.com/filler/' || n, 'filler-' || n, 'filler-' || n
+                    from generate_series(1, ?) n
+                    on conflict do nothing""", rows);
+    }
+}
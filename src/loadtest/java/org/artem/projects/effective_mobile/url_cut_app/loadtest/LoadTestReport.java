@@ -0,0 +1,20 @@
+package org.artem.projects.effective_mobile.url_cut_app.loadtest;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record LoadTestReport(Instant startedAt,
+                             LoadTestSettings settings,
+                             double durationSeconds,
+                             OperationReport total,
+                             Map<String, OperationReport> operations) {
+    public record OperationReport(long requests,
+                                  long errors,
+                                  double errorRate,
+                                  double throughputPerSecond,
+                                  Latency latencyMicros) {
+    }
+
+    public record Latency(long p50, long p90, long p99, long p999, long max, double mean) {
+    }
+}
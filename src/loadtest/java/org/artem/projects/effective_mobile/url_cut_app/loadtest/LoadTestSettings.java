@@ -0,0 +1,32 @@
+package org.artem.projects.effective_mobile.url_cut_app.loadtest;
+
+import java.time.Duration;
+
+public record LoadTestSettings(Duration warmup,
+                               Duration duration,
+                               int concurrency,
+                               double shortenRatio,
+                               int aliases,
+                               double zipfExponent,
+                               long extraRows,
+                               double maxErrorRate,
+                               String reportDir,
+                               int bulkItems,
+                               int bulkRequests,
+                               int bulkSingleRequests) {
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Double.parseDouble(System.getProperty("loadtest.shorten-ratio", "0.01")),
+                Integer.getInteger("loadtest.aliases", 10_000),
+                Double.parseDouble(System.getProperty("loadtest.zipf-exponent", "1.0")),
+                Long.getLong("loadtest.extra-rows", 0L),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.001")),
+                System.getProperty("loadtest.report-dir", "target/load-test"),
+                Integer.getInteger("loadtest.bulk.items", 20_000),
+                Integer.getInteger("loadtest.bulk.requests", 5),
+                Integer.getInteger("loadtest.bulk.single-requests", 2_000));
+    }
+}
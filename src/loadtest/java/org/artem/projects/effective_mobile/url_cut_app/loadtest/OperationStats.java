@@ -0,0 +1,37 @@
+package org.artem.projects.effective_mobile.url_cut_app.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+class OperationStats {
+    private final Histogram latencies = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private long errors;
+
+    void record(long latencyNanos, boolean success) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencies.getHighestTrackableValue()));
+        if (!success)
+            errors++;
+    }
+
+    void add(OperationStats other) {
+        latencies.add(other.latencies);
+        errors += other.errors;
+    }
+
+    LoadTestReport.OperationReport toReport(double seconds) {
+        long requests = latencies.getTotalCount();
+        return new LoadTestReport.OperationReport(
+                requests,
+                errors,
+                requests == 0 ? 0 : (double) errors / requests,
+                requests / seconds,
+                new LoadTestReport.Latency(
+                        latencies.getValueAtPercentile(50),
+                        latencies.getValueAtPercentile(90),
+                        latencies.getValueAtPercentile(99),
+                        latencies.getValueAtPercentile(99.9),
+                        latencies.getMaxValue(),
+                        latencies.getMean()));
+    }
+}
@@ -0,0 +1,31 @@
+package org.artem.projects.effective_mobile.url_cut_app.loadtest;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Runs only when the reactive sources are on the classpath, i.e. with {@code -Preactive}.
+ */
+@EnabledIf("reactiveRuntimePresent")
+@TestPropertySource(properties = "spring.main.web-application-type=reactive")
+class ReactiveLoadTest extends LoadTest {
+    @DynamicPropertySource
+    static void r2dbcProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres");
+        registry.add("spring.r2dbc.username", () -> "postgres");
+        registry.add("spring.r2dbc.password", () -> "");
+    }
+
+    static boolean reactiveRuntimePresent() {
+        return ClassUtils.isPresent("org.artem.projects.effective_mobile.url_cut_app.reactive.ReactiveURLController", null)
+                && ClassUtils.isPresent("org.springframework.web.reactive.DispatcherHandler", null);
+    }
+
+    @Override
+    protected String mode() {
+        return "reactive";
+    }
+}
@@ -0,0 +1,8 @@
+package org.artem.projects.effective_mobile.url_cut_app.loadtest;
+
+class ServletLoadTest extends LoadTest {
+    @Override
+    protected String mode() {
+        return "servlet";
+    }
+}
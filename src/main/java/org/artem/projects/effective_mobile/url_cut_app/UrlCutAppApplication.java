@@ -2,8 +2,17 @@ package org.artem.projects.effective_mobile.url_cut_app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+/**
+ * An auto-configured R2DBC {@code ConnectionFactory} would switch off the JDBC {@code DataSource} that
+ * JPA, Flyway and the background jobs still use in reactive mode, so the reactive sources build their
+ * own pool instead. The exclusion is a no-op in servlet builds, which have no R2DBC driver.
+ */
+@SpringBootApplication(exclude = {RedisAutoConfiguration.class, RedisRepositoriesAutoConfiguration.class,
+		R2dbcAutoConfiguration.class})
 public class UrlCutAppApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,21 @@
+package org.artem.projects.effective_mobile.url_cut_app.alias;
+
+public interface AliasGenerator {
+    String nextAlias();
+
+    /**
+     * Whether generated aliases are unique across instances, so a link can be acknowledged before
+     * its insert proves the alias free.
+     */
+    default boolean isUnique() {
+        return false;
+    }
+
+    /**
+     * Whether {@link #nextAlias()} could ever return this alias. While write-behind is on such aliases
+     * are refused as custom ones, since a journaled link may already hold them.
+     */
+    default boolean canGenerate(String alias) {
+        return false;
+    }
+}
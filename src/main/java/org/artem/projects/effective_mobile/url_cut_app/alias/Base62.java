@@ -0,0 +1,38 @@
+package org.artem.projects.effective_mobile.url_cut_app.alias;
+
+import java.util.Arrays;
+
+public final class Base62 {
+    private static final char[] ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final String MAX_ENCODED = encode(Long.MAX_VALUE);
+
+    private Base62() {
+    }
+
+    public static String encode(long value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+
+        char[] buffer = new char[11];
+        int position = buffer.length;
+        do {
+            buffer[--position] = ALPHABET[(int) (value % 62)];
+            value /= 62;
+        } while (value > 0);
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    /**
+     * Whether {@link #encode(long)} returns this string for some value.
+     */
+    public static boolean isEncoded(String text) {
+        if (text.isEmpty() || text.length() > MAX_ENCODED.length() || (text.length() > 1 && text.charAt(0) == '0'))
+            return false;
+        for (int i = 0; i < text.length(); i++)
+            if (Arrays.binarySearch(ALPHABET, text.charAt(i)) < 0)
+                return false;
+        // The alphabet is in ascending order, so encodings of equal length compare like their values
+        return text.length() < MAX_ENCODED.length() || text.compareTo(MAX_ENCODED) <= 0;
+    }
+}
@@ -0,0 +1,41 @@
+package org.artem.projects.effective_mobile.url_cut_app.alias;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@RequiredArgsConstructor
+public class IdBlockAllocator {
+    private static final String SEQUENCE = "alias_id_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Not synchronized: leasing a block queries the database, which would pin a virtual thread to its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long blockSize;
+    private long next;
+    private long limit;
+
+    public long nextId() {
+        lock.lock();
+        try {
+            if (next == limit)
+                leaseBlock();
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void leaseBlock() {
+        if (blockSize == 0)
+            blockSize = jdbcTemplate.queryForObject(
+                    "select increment_by from pg_sequences where sequencename = ?", Long.class, SEQUENCE);
+
+        next = jdbcTemplate.queryForObject("select nextval('" + SEQUENCE + "')", Long.class);
+        limit = next + blockSize;
+    }
+}
@@ -0,0 +1,21 @@
+package org.artem.projects.effective_mobile.url_cut_app.alias;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "service.alias.strategy", havingValue = "random")
+public class RandomAliasGenerator implements AliasGenerator {
+    private final int length;
+
+    public RandomAliasGenerator(@Value("${service.alias.random-length:10}") int length) {
+        this.length = length;
+    }
+
+    @Override
+    public String nextAlias() {
+        return RandomStringUtils.random(length, true, true);
+    }
+}
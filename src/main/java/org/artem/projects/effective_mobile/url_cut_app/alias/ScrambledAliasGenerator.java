@@ -0,0 +1,63 @@
+package org.artem.projects.effective_mobile.url_cut_app.alias;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Permutes the low 40 bits of each sequence id with a keyed Feistel network, so codes stay
+ * unique and short (at most 7 base62 characters below 2^40 ids) but are not enumerable.
+ */
+@Component
+@ConditionalOnProperty(name = "service.alias.strategy", havingValue = "scrambled")
+public class ScrambledAliasGenerator implements AliasGenerator {
+    private static final int HALF_BITS = 20;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final long DOMAIN_MASK = (1L << (2 * HALF_BITS)) - 1;
+    private static final int ROUNDS = 4;
+
+    private final IdBlockAllocator idBlockAllocator;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public ScrambledAliasGenerator(IdBlockAllocator idBlockAllocator,
+                                   @Value("${service.alias.secret}") long secret) {
+        this.idBlockAllocator = idBlockAllocator;
+        long state = secret;
+        for (int i = 0; i < ROUNDS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = mix(state);
+        }
+    }
+
+    @Override
+    public String nextAlias() {
+        return Base62.encode(scramble(idBlockAllocator.nextId()));
+    }
+
+    long scramble(long id) {
+        long left = (id >>> HALF_BITS) & HALF_MASK;
+        long right = id & HALF_MASK;
+        for (long roundKey : roundKeys) {
+            long nextRight = left ^ (mix(right ^ roundKey) & HALF_MASK);
+            left = right;
+            right = nextRight;
+        }
+        return (id & ~DOMAIN_MASK) | (left << HALF_BITS) | right;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    @Override
+    public boolean isUnique() {
+        return true;
+    }
+
+    @Override
+    public boolean canGenerate(String alias) {
+        return Base62.isEncoded(alias);
+    }
+}
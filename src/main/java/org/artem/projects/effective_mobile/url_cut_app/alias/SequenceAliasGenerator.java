@@ -0,0 +1,27 @@
+package org.artem.projects.effective_mobile.url_cut_app.alias;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "service.alias.strategy", havingValue = "sequence", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SequenceAliasGenerator implements AliasGenerator {
+    private final IdBlockAllocator idBlockAllocator;
+
+    @Override
+    public String nextAlias() {
+        return Base62.encode(idBlockAllocator.nextId());
+    }
+
+    @Override
+    public boolean isUnique() {
+        return true;
+    }
+
+    @Override
+    public boolean canGenerate(String alias) {
+        return Base62.isEncoded(alias);
+    }
+}
@@ -0,0 +1,4 @@
+package org.artem.projects.effective_mobile.url_cut_app.analytics;
+
+public record ClickEvent(String alias, long timestamp, int weight) {
+}
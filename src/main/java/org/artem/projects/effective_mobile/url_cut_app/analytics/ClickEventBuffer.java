@@ -0,0 +1,88 @@
+package org.artem.projects.effective_mobile.url_cut_app.analytics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking hand-off between the redirect path and {@link ClickStatsFlusher}. Above the sampling
+ * threshold only one click in {@code sample-rate} is kept, weighted so totals stay unbiased; once
+ * the buffer is full further clicks are dropped.
+ */
+@Component
+public class ClickEventBuffer {
+    private final Queue<ClickEvent> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final boolean enabled;
+    private final int capacity;
+    private final int samplingThreshold;
+    private final int sampleRate;
+    private final Counter recordedCounter;
+    private final Counter sampledOutCounter;
+    private final Counter droppedCounter;
+
+    public ClickEventBuffer(MeterRegistry meterRegistry,
+                            @Value("${service.analytics.enabled:true}") boolean enabled,
+                            @Value("${service.analytics.buffer-capacity:100000}") int capacity,
+                            @Value("${service.analytics.sampling-threshold:0.75}") double samplingThreshold,
+                            @Value("${service.analytics.sample-rate:10}") int sampleRate) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.samplingThreshold = (int) (capacity * samplingThreshold);
+        this.sampleRate = sampleRate;
+        this.recordedCounter = clickCounter(meterRegistry, "recorded");
+        this.sampledOutCounter = clickCounter(meterRegistry, "sampled-out");
+        this.droppedCounter = clickCounter(meterRegistry, "dropped");
+        Gauge.builder("urls.clicks.buffer.size", size, AtomicInteger::get)
+                .description("Click events waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    public void record(String alias) {
+        if (!enabled)
+            return;
+
+        int weight = 1;
+        if (size.get() >= samplingThreshold) {
+            if (ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+                sampledOutCounter.increment();
+                return;
+            }
+            weight = sampleRate;
+        }
+
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            droppedCounter.increment();
+            return;
+        }
+        events.offer(new ClickEvent(alias, System.currentTimeMillis(), weight));
+        recordedCounter.increment();
+    }
+
+    public int drain(int maxEvents, Consumer<ClickEvent> consumer) {
+        int drained = 0;
+        ClickEvent event;
+        while (drained < maxEvents && (event = events.poll()) != null) {
+            size.decrementAndGet();
+            consumer.accept(event);
+            drained++;
+        }
+        return drained;
+    }
+
+    private static Counter clickCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("urls.clicks")
+                .description("Click events by buffer outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,78 @@
+package org.artem.projects.effective_mobile.url_cut_app.analytics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlClickStats;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.ClickStatsRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "service.analytics.enabled", havingValue = "true", matchIfMissing = true)
+public class ClickStatsFlusher implements DisposableBean {
+    private final ClickEventBuffer clickEventBuffer;
+    private final ClickStatsRepository clickStatsRepository;
+    private final int maxEventsPerFlush;
+    private final Timer flushTimer;
+
+    public ClickStatsFlusher(ClickEventBuffer clickEventBuffer,
+                             ClickStatsRepository clickStatsRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${service.analytics.max-events-per-flush:100000}") int maxEventsPerFlush) {
+        this.clickEventBuffer = clickEventBuffer;
+        this.clickStatsRepository = clickStatsRepository;
+        this.maxEventsPerFlush = maxEventsPerFlush;
+        this.flushTimer = Timer.builder("urls.clicks.flush")
+                .description("Duration of a click stats flush")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${service.analytics.flush-interval:PT5S}")
+    public void flush() {
+        Map<String, ClickAggregate> aggregates = new TreeMap<>();
+        clickEventBuffer.drain(maxEventsPerFlush, event -> aggregates
+                .computeIfAbsent(event.alias(), alias -> new ClickAggregate())
+                .add(event));
+        if (aggregates.isEmpty())
+            return;
+
+        flushTimer.record(() -> clickStatsRepository.upsertAll(aggregates.entrySet().stream()
+                .map(entry -> entry.getValue().toStats(entry.getKey()))
+                .toList()));
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not flush click stats on shutdown", e);
+        }
+    }
+
+    private static class ClickAggregate {
+        private long clicks;
+        private long lastAccess;
+
+        void add(ClickEvent event) {
+            clicks += event.weight();
+            lastAccess = Math.max(lastAccess, event.timestamp());
+        }
+
+        UrlClickStats toStats(String alias) {
+            return new UrlClickStats(alias, clicks,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(lastAccess), ZoneId.systemDefault()));
+        }
+    }
+}
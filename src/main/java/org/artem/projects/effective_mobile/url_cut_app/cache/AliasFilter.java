@@ -0,0 +1,163 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bloom filter of existing aliases that answers definite misses without a database round trip.
+ * Until the first build completes every alias is reported as possibly present. Rebuilds stream the
+ * table into a fresh filter while new aliases are written to both, then swap it in, which also sheds
+ * deleted aliases. Rows written by other instances arrive through the {@link InvalidationBus} and a
+ * frequent refresh that reads rows created after the newest one seen. A row is stamped with the start
+ * of its transaction, so one that commits late can be older than that. Once every
+ * {@code refresh-lookback} the refresh therefore reads back to the newest row seen by the previous such
+ * sweep minus the lookback, which covers transactions that were open for up to that long. Each row is
+ * read about three times, instead of once per refresh while it is within the lookback.
+ */
+@Slf4j
+@Component
+public class AliasFilter implements InvalidationListener {
+    private final URLRepository urlRepository;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long expectedAliases;
+    private final Duration refreshLookback;
+    private final AtomicReference<Instant> lastSeenCreatedAt = new AtomicReference<>(Instant.EPOCH);
+    private volatile Instant sweptSeenCreatedAt = Instant.EPOCH;
+    private volatile long nextSweep;
+    private final Counter rejectedCounter;
+    private final Timer rebuildTimer;
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+
+    public AliasFilter(URLRepository urlRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${service.alias-filter.enabled:false}") boolean enabled,
+                       @Value("${service.alias-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                       @Value("${service.alias-filter.expected-aliases:1000000}") long expectedAliases,
+                       @Value("${service.alias-filter.refresh-lookback:PT30S}") Duration refreshLookback) {
+        this.urlRepository = urlRepository;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.expectedAliases = expectedAliases;
+        this.refreshLookback = refreshLookback;
+        this.rejectedCounter = Counter.builder("urls.alias.filter.rejected")
+                .description("Lookups answered as not found by the alias filter")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("urls.alias.filter.rebuild")
+                .description("Duration of an alias filter rebuild")
+                .register(meterRegistry);
+        Gauge.builder("urls.alias.filter.size", this, AliasFilter::sizeInBytes)
+                .description("Memory held by the alias filter, including one being rebuilt")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("urls.alias.filter.entries", this, filter -> filter.current != null ? filter.current.insertions() : 0)
+                .description("Aliases added to the alias filter")
+                .register(meterRegistry);
+        Gauge.builder("urls.alias.filter.false-positive-rate", this,
+                        filter -> filter.current != null ? filter.current.expectedFalsePositiveRate() : 0)
+                .description("False-positive rate expected for the current fill")
+                .register(meterRegistry);
+    }
+
+    public boolean mightContain(String alias) {
+        BloomFilter filter = current;
+        if (filter == null || filter.mightContain(alias))
+            return true;
+
+        rejectedCounter.increment();
+        return false;
+    }
+
+    /**
+     * Adds the alias once the surrounding transaction commits, so a rebuild that starts in between
+     * is guaranteed to either see the row or receive the alias directly.
+     */
+    public void add(String alias) {
+        if (!enabled)
+            return;
+
+        AfterCommit.run(() -> put(alias));
+    }
+
+    /**
+     * Adds aliases created on any instance, so that a link is not reported missing on other
+     * instances until the next refresh.
+     */
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        if (enabled && invalidation.reason() == Invalidation.Reason.CREATED)
+            invalidation.aliases().forEach(this::put);
+    }
+
+    @Scheduled(fixedDelayString = "${service.alias-filter.rebuild-interval:PT1H}", initialDelay = 0)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (enabled)
+            rebuildTimer.record(this::rebuildFilter);
+    }
+
+    @Scheduled(fixedDelayString = "${service.alias-filter.refresh-interval:PT1S}")
+    public void refresh() {
+        if (!enabled || current == null)
+            return;
+
+        Instant from = lastSeenCreatedAt.get();
+        long now = System.currentTimeMillis();
+        if (now >= nextSweep) {
+            from = sweptSeenCreatedAt.minus(refreshLookback);
+            sweptSeenCreatedAt = lastSeenCreatedAt.get();
+            nextSweep = now + refreshLookback.toMillis();
+        }
+        advance(urlRepository.forEachAliasCreatedAfter(from, this::put));
+    }
+
+    private void rebuildFilter() {
+        BloomFilter filter = new BloomFilter(Math.max(expectedAliases, urlRepository.estimatedCount() * 2), falsePositiveRate);
+        building = filter;
+        try {
+            advance(urlRepository.forEachAliasCreatedAfter(Instant.EPOCH, filter::put));
+            sweptSeenCreatedAt = lastSeenCreatedAt.get();
+            nextSweep = System.currentTimeMillis() + refreshLookback.toMillis();
+            current = filter;
+        } finally {
+            building = null;
+        }
+        log.info("Alias filter rebuilt with {} aliases, {} bytes, {} hash functions",
+                filter.insertions(), filter.sizeInBytes(), filter.hashCount());
+    }
+
+    private void put(String alias) {
+        BloomFilter target = current;
+        if (target != null)
+            target.put(alias);
+        BloomFilter next = building;
+        if (next != null)
+            next.put(alias);
+        BloomFilter swapped = current;
+        if (swapped != target && swapped != next)
+            swapped.put(alias);
+    }
+
+    private void advance(Instant createdAt) {
+        lastSeenCreatedAt.accumulateAndGet(createdAt, (seen, next) -> next.isAfter(seen) ? next : seen);
+    }
+
+    private long sizeInBytes() {
+        BloomFilter filter = current;
+        BloomFilter next = building;
+        return (filter != null ? filter.sizeInBytes() : 0) + (next != null && next != filter ? next.sizeInBytes() : 0);
+    }
+}
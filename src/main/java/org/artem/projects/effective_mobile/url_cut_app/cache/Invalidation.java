@@ -0,0 +1,25 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import java.util.List;
+
+/**
+ * Aliases that were created or removed on some instance. {@link Reason#RESET} carries no aliases and
+ * tells listeners that messages may have been missed, so everything cached should be dropped.
+ */
+public record Invalidation(Reason reason, List<String> aliases) {
+    public static final Invalidation RESET = new Invalidation(Reason.RESET, List.of());
+
+    public static Invalidation created(List<String> aliases) {
+        return new Invalidation(Reason.CREATED, aliases);
+    }
+
+    public static Invalidation removed(List<String> aliases) {
+        return new Invalidation(Reason.REMOVED, aliases);
+    }
+
+    public enum Reason {
+        CREATED,
+        REMOVED,
+        RESET
+    }
+}
@@ -0,0 +1,10 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+/**
+ * Broadcasts alias changes to the {@link InvalidationListener}s of other instances, selected with
+ * {@code service.invalidation.bus}; publishers update their own cache and alias filter directly.
+ * Published inside a transaction, an invalidation is sent once it commits.
+ */
+public interface InvalidationBus {
+    void publish(Invalidation invalidation);
+}
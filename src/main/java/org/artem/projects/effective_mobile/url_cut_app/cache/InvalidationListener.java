@@ -0,0 +1,10 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+/**
+ * Node-local state derived from the table; every bean of this type receives the invalidations
+ * published on any instance.
+ */
+@FunctionalInterface
+public interface InvalidationListener {
+    void onInvalidation(Invalidation invalidation);
+}
@@ -0,0 +1,25 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-process bus for a single instance and for tests: delivers straight to this instance's listeners,
+ * which stand in for those of other instances.
+ */
+@Component
+@ConditionalOnProperty(name = "service.invalidation.bus", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus implements InvalidationBus {
+    private final List<InvalidationListener> listeners;
+
+    public LocalInvalidationBus(List<InvalidationListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        AfterCommit.run(() -> listeners.forEach(listener -> listener.onInvalidation(invalidation)));
+    }
+}
@@ -0,0 +1,224 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Bus over Postgres {@code LISTEN/NOTIFY}. A single thread holds a dedicated connection outside the
+ * pool: it sends queued invalidations with {@code pg_notify} and waits up to {@code poll-interval}
+ * for notifications from other instances, skipping its own.
+ * When the connection is lost, notifications sent meanwhile are lost too, so after reconnecting
+ * listeners receive {@link Invalidation#RESET}.
+ * <p>
+ * Payload: {@code C} (created) or {@code R} (removed) followed by newline-separated aliases, split to
+ * stay under the 8000-byte {@code NOTIFY} limit.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "service.invalidation.bus", havingValue = "postgres")
+public class PostgresInvalidationBus implements InvalidationBus, DisposableBean {
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final List<InvalidationListener> listeners;
+    private final String channel;
+    private final Duration pollInterval;
+    private final Duration reconnectDelay;
+    private final BlockingQueue<Invalidation> outbox;
+    private final List<String> unsent = new ArrayList<>();
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+    private final Counter droppedCounter;
+    private final Thread worker;
+    private volatile boolean closed;
+
+    public PostgresInvalidationBus(DataSourceProperties dataSourceProperties,
+                                   List<InvalidationListener> listeners,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${service.invalidation.channel:url_invalidations}") String channel,
+                                   @Value("${service.invalidation.poll-interval:50ms}") Duration pollInterval,
+                                   @Value("${service.invalidation.reconnect-delay:1s}") Duration reconnectDelay,
+                                   @Value("${service.invalidation.outbox-capacity:100000}") int outboxCapacity) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.listeners = listeners;
+        this.channel = channel;
+        this.pollInterval = pollInterval;
+        this.reconnectDelay = reconnectDelay;
+        this.outbox = new LinkedBlockingQueue<>(outboxCapacity);
+        this.publishedCounter = Counter.builder("urls.invalidation.published")
+                .description("Invalidation notifications sent to other instances")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("urls.invalidation.received")
+                .description("Invalidation notifications received from other instances")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("urls.invalidation.dropped")
+                .description("Invalidations dropped because the outbox was full")
+                .register(meterRegistry);
+        this.worker = new Thread(this::run, "url-invalidation-bus");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        AfterCommit.run(() -> {
+            if (!outbox.offer(invalidation))
+                droppedCounter.increment();
+        });
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        closed = true;
+        worker.join(reconnectDelay.plus(pollInterval).multipliedBy(2).toMillis());
+    }
+
+    private void run() {
+        boolean reconnecting = false;
+        while (!closed) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    log.info("Invalidation bus reconnected, dropping cached entries");
+                    deliver(Invalidation.RESET);
+                }
+                reconnecting = true;
+                listen(connection, pgConnection);
+            } catch (SQLException e) {
+                if (closed)
+                    return;
+                log.warn("Invalidation bus connection failed, reconnecting in {}", reconnectDelay, e);
+                sleep(reconnectDelay);
+            }
+        }
+    }
+
+    private void listen(Connection connection, PGConnection pgConnection) throws SQLException {
+        int ownPid = pgConnection.getBackendPID();
+        try (PreparedStatement notify = connection.prepareStatement("select pg_notify(?, ?)")) {
+            while (!closed) {
+                send(notify);
+                PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                if (notifications == null)
+                    continue;
+                for (PGNotification notification : notifications) {
+                    if (notification.getPID() == ownPid)
+                        continue;
+                    receivedCounter.increment();
+                    try {
+                        deliver(decode(notification.getParameter()));
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Ignoring malformed invalidation on channel {}", channel, e);
+                    }
+                }
+            }
+            send(notify);
+        }
+    }
+
+    // Payloads stay in unsent until pg_notify succeeds, so a failed send is retried after reconnecting.
+    private void send(PreparedStatement notify) throws SQLException {
+        List<Invalidation> queued = new ArrayList<>();
+        outbox.drainTo(queued);
+        coalesce(queued).forEach(invalidation -> unsent.addAll(encode(invalidation)));
+        while (!unsent.isEmpty()) {
+            notify.setString(1, channel);
+            notify.setString(2, unsent.get(0));
+            notify.execute();
+            unsent.remove(0);
+            publishedCounter.increment();
+        }
+    }
+
+    private void deliver(Invalidation invalidation) {
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidation(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener {} failed", listener, e);
+            }
+        }
+    }
+
+    // Merges runs of the same reason, so links journaled one at a time share a notification.
+    static List<Invalidation> coalesce(List<Invalidation> queued) {
+        List<Invalidation> merged = new ArrayList<>(queued.size());
+        Invalidation.Reason reason = null;
+        List<String> aliases = null;
+        for (Invalidation invalidation : queued) {
+            if (invalidation.reason() != reason) {
+                reason = invalidation.reason();
+                aliases = new ArrayList<>(invalidation.aliases());
+                merged.add(new Invalidation(reason, aliases));
+            } else {
+                aliases.addAll(invalidation.aliases());
+            }
+        }
+        return merged;
+    }
+
+    static List<String> encode(Invalidation invalidation) {
+        String prefix = switch (invalidation.reason()) {
+            case CREATED -> "C";
+            case REMOVED -> "R";
+            case RESET -> throw new IllegalArgumentException("A reset is only delivered locally");
+        };
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(prefix);
+        int payloadBytes = 1;
+        for (String alias : invalidation.aliases()) {
+            int aliasBytes = alias.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (payloadBytes + aliasBytes > MAX_PAYLOAD_BYTES && payload.length() > 1) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(prefix);
+                payloadBytes = 1;
+            }
+            payload.append('\n').append(alias);
+            payloadBytes += aliasBytes;
+        }
+        payloads.add(payload.toString());
+        return payloads;
+    }
+
+    static Invalidation decode(String payload) {
+        Invalidation.Reason reason = switch (payload.isEmpty() ? ' ' : payload.charAt(0)) {
+            case 'C' -> Invalidation.Reason.CREATED;
+            case 'R' -> Invalidation.Reason.REMOVED;
+            default -> throw new IllegalArgumentException("Unknown invalidation payload: " + payload);
+        };
+        List<String> aliases = payload.length() > 1 ? List.of(payload.substring(2).split("\n")) : List.of();
+        return new Invalidation(reason, aliases);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis tier of the url cache. Reads are synchronous and bounded by {@code spring.data.redis.timeout};
+ * writes and evictions go through a bounded queue on a background thread and are dropped when it is full.
+ * Entries expire after {@code ttl}, or at the link's expiration time if that comes first.
+ * <p>
+ * Value: {@code expirationTime|redirectType|originalUrl}, with empty fields for {@code null}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "service.cache.shared.enabled", havingValue = "true")
+public class RedisSharedUrlCache implements SharedUrlCache, DisposableBean {
+    private static final String KEY_PREFIX = "url:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final ThreadPoolExecutor writer;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter errorCounter;
+    private final Counter droppedCounter;
+
+    public RedisSharedUrlCache(StringRedisTemplate redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${service.cache.shared.ttl:1h}") Duration ttl,
+                               @Value("${service.cache.shared.write-queue-capacity:10000}") int writeQueueCapacity) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.hitCounter = getCounter(meterRegistry, "hit");
+        this.missCounter = getCounter(meterRegistry, "miss");
+        this.errorCounter = Counter.builder("urls.cache.shared.errors")
+                .description("Shared url cache operations that failed and were treated as a miss or dropped")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("urls.cache.shared.dropped")
+                .description("Shared url cache writes dropped because the write queue was full")
+                .register(meterRegistry);
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(writeQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "shared-url-cache-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> droppedCounter.increment());
+    }
+
+    @Override
+    public UrlTarget get(String alias) {
+        String value;
+        try {
+            value = redisTemplate.opsForValue().get(KEY_PREFIX + alias);
+        } catch (DataAccessException e) {
+            errorCounter.increment();
+            log.debug("Could not read alias '{}' from the shared url cache", alias, e);
+            return null;
+        }
+        (value != null ? hitCounter : missCounter).increment();
+        return value != null ? decode(value) : null;
+    }
+
+    @Override
+    public void put(String alias, UrlTarget target) {
+        Duration expiresIn = target.expirationTime() != null
+                ? Duration.between(LocalDateTime.now(), target.expirationTime())
+                : ttl;
+        Duration entryTtl = expiresIn.compareTo(ttl) < 0 ? expiresIn : ttl;
+        if (entryTtl.toMillis() <= 0)
+            return;
+
+        String value = encode(target);
+        writer.execute(() -> write(() -> redisTemplate.opsForValue().set(KEY_PREFIX + alias, value, entryTtl)));
+    }
+
+    @Override
+    public void evict(Collection<String> aliases) {
+        List<String> keys = aliases.stream().map(alias -> KEY_PREFIX + alias).toList();
+        writer.execute(() -> write(() -> redisTemplate.delete(keys)));
+    }
+
+    @Override
+    public void destroy() {
+        writer.shutdown();
+    }
+
+    private void write(Runnable operation) {
+        try {
+            operation.run();
+        } catch (DataAccessException e) {
+            errorCounter.increment();
+            log.debug("Could not write to the shared url cache", e);
+        }
+    }
+
+    static String encode(UrlTarget target) {
+        return (target.expirationTime() != null ? target.expirationTime().toString() : "")
+                + "|" + (target.redirectType() != null ? target.redirectType().name() : "")
+                + "|" + target.originalUrl();
+    }
+
+    static UrlTarget decode(String value) {
+        String[] fields = value.split("\\|", 3);
+        return new UrlTarget(fields[2],
+                fields[0].isEmpty() ? null : LocalDateTime.parse(fields[0]),
+                fields[1].isEmpty() ? null : RedirectType.valueOf(fields[1]));
+    }
+
+    private static Counter getCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("urls.cache.shared.gets")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
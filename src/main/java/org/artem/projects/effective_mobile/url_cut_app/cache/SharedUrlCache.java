@@ -0,0 +1,17 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+
+import java.util.Collection;
+
+/**
+ * Cache tier shared by all instances, behind the node-local one in {@link UrlCache}. Failures must
+ * not surface: a failed read is a miss and a failed write is dropped.
+ */
+public interface SharedUrlCache {
+    UrlTarget get(String alias);
+
+    void put(String alias, UrlTarget target);
+
+    void evict(Collection<String> aliases);
+}
@@ -0,0 +1,127 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Node-local cache of link targets, optionally backed by a {@link SharedUrlCache}. Local entries
+ * are dropped when any instance publishes an {@link Invalidation} for them.
+ */
+@Component
+public class UrlCache implements MeterBinder, InvalidationListener {
+    private final Cache<String, UrlTarget> cache;
+    private final SharedUrlCache sharedCache;
+
+    public UrlCache(long maximumSize, Duration ttl) {
+        this(maximumSize, ttl, (SharedUrlCache) null);
+    }
+
+    @Autowired
+    public UrlCache(@Value("${service.cache.maximum-size:100000}") long maximumSize,
+                    @Value("${service.cache.ttl:10m}") Duration ttl,
+                    ObjectProvider<SharedUrlCache> sharedCache) {
+        this(maximumSize, ttl, sharedCache.getIfAvailable());
+    }
+
+    public UrlCache(long maximumSize, Duration ttl, SharedUrlCache sharedCache) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new LinkExpiry(ttl))
+                .recordStats()
+                .build();
+        this.sharedCache = sharedCache;
+    }
+
+    public UrlTarget get(String alias) {
+        return cache.getIfPresent(alias);
+    }
+
+    public boolean hasSharedTier() {
+        return sharedCache != null;
+    }
+
+    /**
+     * Looks the alias up in the shared tier and keeps a hit locally; {@code null} without a shared tier.
+     */
+    public UrlTarget getShared(String alias) {
+        if (sharedCache == null)
+            return null;
+
+        UrlTarget target = sharedCache.get(alias);
+        if (target != null)
+            cache.put(alias, target);
+        return target;
+    }
+
+    public void put(String alias, UrlTarget target) {
+        cache.put(alias, target);
+        if (sharedCache != null)
+            sharedCache.put(alias, target);
+    }
+
+    /**
+     * Adds an entry to the local tier only, for entries read in bulk that the shared tier does not need.
+     */
+    public void preload(String alias, UrlTarget target) {
+        cache.put(alias, target);
+    }
+
+    public void invalidate(String alias) {
+        cache.invalidate(alias);
+        if (sharedCache != null)
+            sharedCache.evict(List.of(alias));
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        if (invalidation.reason() == Invalidation.Reason.RESET)
+            cache.invalidateAll();
+        else
+            cache.invalidateAll(invalidation.aliases());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "urls");
+    }
+
+    private record LinkExpiry(Duration ttl) implements Expiry<String, UrlTarget> {
+        @Override
+        public long expireAfterCreate(String alias, UrlTarget target, long currentTime) {
+            long ttlNanos = ttl.toNanos();
+            if (target.expirationTime() == null)
+                return ttlNanos;
+
+            long untilExpiration = Duration.between(LocalDateTime.now(), target.expirationTime()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiration));
+        }
+
+        @Override
+        public long expireAfterUpdate(String alias, UrlTarget target, long currentTime, long currentDuration) {
+            return expireAfterCreate(alias, target, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String alias, UrlTarget target, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
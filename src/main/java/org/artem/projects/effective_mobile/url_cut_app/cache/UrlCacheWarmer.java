@@ -0,0 +1,67 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.ClickStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the most clicked links into the local {@link UrlCache} on startup, so a new instance does
+ * not send its first redirects to the database. Application runners complete before the readiness
+ * state turns to accepting traffic, so the instance only reports ready once the cache is warm. A
+ * failed warm-up is logged and the instance starts cold.
+ */
+@Slf4j
+@Component
+public class UrlCacheWarmer implements ApplicationRunner {
+    private final ClickStatsRepository clickStatsRepository;
+    private final UrlCache urlCache;
+    private final boolean enabled;
+    private final int size;
+    private final Timer warmUpTimer;
+    private final AtomicInteger loaded = new AtomicInteger();
+
+    public UrlCacheWarmer(ClickStatsRepository clickStatsRepository,
+                          UrlCache urlCache,
+                          MeterRegistry meterRegistry,
+                          @Value("${service.cache.warm-up.enabled:false}") boolean enabled,
+                          @Value("${service.cache.warm-up.size:10000}") int size) {
+        this.clickStatsRepository = clickStatsRepository;
+        this.urlCache = urlCache;
+        this.enabled = enabled;
+        this.size = size;
+        this.warmUpTimer = Timer.builder("urls.cache.warm-up")
+                .description("Duration of preloading the url cache on startup")
+                .register(meterRegistry);
+        Gauge.builder("urls.cache.warm-up.entries", loaded, AtomicInteger::get)
+                .description("Links preloaded into the url cache on startup")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || size <= 0)
+            return;
+
+        long startTime = System.nanoTime();
+        try {
+            loaded.set(clickStatsRepository.forEachMostClicked(size, LocalDateTime.now(), urlCache::preload));
+        } catch (DataAccessException e) {
+            log.warn("Could not preload the url cache, starting cold", e);
+            return;
+        }
+        long elapsed = System.nanoTime() - startTime;
+        warmUpTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Preloaded {} links into the url cache in {} ms", loaded.get(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+}
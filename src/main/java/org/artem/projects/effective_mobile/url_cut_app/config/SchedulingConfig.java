@@ -0,0 +1,9 @@
+package org.artem.projects.effective_mobile.url_cut_app.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,19 @@
+package org.artem.projects.effective_mobile.url_cut_app.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Redis connection for the shared url cache tier, set up by Boot's Redis auto-configuration only when
+ * the tier is enabled, so every {@code spring.data.redis.*} setting applies (url, ssl, sentinel,
+ * cluster, pool). It is excluded from auto-configuration otherwise, so instances without the tier
+ * carry no Redis connection. The Redis health indicator is disabled in {@code application.yml}: an
+ * unreachable Redis only turns shared lookups into misses and must not take the instance out of service.
+ */
+@Configuration
+@ConditionalOnProperty(name = "service.cache.shared.enabled", havingValue = "true")
+@Import(RedisAutoConfiguration.class)
+public class SharedCacheConfig {
+}
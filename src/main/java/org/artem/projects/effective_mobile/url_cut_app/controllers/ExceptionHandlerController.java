@@ -4,7 +4,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.artem.projects.effective_mobile.url_cut_app.exceptions.AliasAlreadyUsedException;
 import org.artem.projects.effective_mobile.url_cut_app.exceptions.ExceptionResponse;
 import org.artem.projects.effective_mobile.url_cut_app.exceptions.ShortedUrlNotFoundException;
-import org.artem.projects.effective_mobile.url_cut_app.exceptions.UrlTimeExpiredLivenessException;
+import org.artem.projects.effective_mobile.url_cut_app.exceptions.TooManyBulkItemsException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.time.LocalDateTime;
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ExceptionHandlerController {
     @ExceptionHandler(ShortedUrlNotFoundException.class)
     public ResponseEntity<ExceptionResponse> handleNotFoundExceptions(RuntimeException e,
@@ -22,11 +24,19 @@ public class ExceptionHandlerController {
         return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
     }
 
-    @ExceptionHandler({UrlTimeExpiredLivenessException.class, AliasAlreadyUsedException.class})
-    public ResponseEntity<ExceptionResponse> handleExpiredExceptions(RuntimeException e,
-                                                                      HttpServletRequest request) {
+    @ExceptionHandler(AliasAlreadyUsedException.class)
+    public ResponseEntity<ExceptionResponse> handleAliasAlreadyUsedException(RuntimeException e,
+                                                                             HttpServletRequest request) {
         ExceptionResponse exceptionResponse = new ExceptionResponse(request.getRequestURI(), e.getMessage(),
                 LocalDateTime.now());
         return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(TooManyBulkItemsException.class)
+    public ResponseEntity<ExceptionResponse> handleTooManyBulkItemsException(RuntimeException e,
+                                                                             HttpServletRequest request) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(request.getRequestURI(), e.getMessage(),
+                LocalDateTime.now());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
 }
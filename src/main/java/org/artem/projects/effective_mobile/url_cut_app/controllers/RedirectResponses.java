@@ -0,0 +1,83 @@
+package org.artem.projects.effective_mobile.url_cut_app.controllers;
+
+import org.artem.projects.effective_mobile.url_cut_app.dto.RedirectResolution;
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Responses for the redirect endpoint. Not-found and expired responses are built once and shared,
+ * so misses allocate nothing beyond what the servlet container needs to write them.
+ * <p>
+ * Permanent redirects may be cached by browsers and CDNs until the link expires, capped at
+ * {@code permanent-max-age}; temporary ones are marked {@code no-store} so every click reaches the
+ * service and is counted.
+ */
+@Component
+public class RedirectResponses {
+    private static final String NO_STORE = "no-store";
+
+    private final ResponseEntity<byte[]> notFound;
+    private final ResponseEntity<byte[]> expired;
+    private final RedirectType defaultType;
+    private final long permanentMaxAge;
+    private final String permanentCacheControl;
+
+    public RedirectResponses(@Value("${service.redirect.not-found-body:Not Found}") String notFoundBody,
+                             @Value("${service.redirect.expired-body:Gone}") String expiredBody,
+                             @Value("${service.redirect.default-type:FOUND}") RedirectType defaultType,
+                             @Value("${service.redirect.permanent-max-age:30d}") Duration permanentMaxAge) {
+        this.notFound = plainText(HttpStatus.NOT_FOUND, notFoundBody);
+        this.expired = plainText(HttpStatus.GONE, expiredBody);
+        this.defaultType = defaultType;
+        this.permanentMaxAge = permanentMaxAge.toSeconds();
+        this.permanentCacheControl = publicMaxAge(this.permanentMaxAge);
+    }
+
+    public ResponseEntity<byte[]> of(RedirectResolution resolution) {
+        return switch (resolution.outcome()) {
+            case FOUND -> redirect(resolution.target());
+            case NOT_FOUND -> notFound;
+            case EXPIRED -> expired;
+        };
+    }
+
+    private ResponseEntity<byte[]> redirect(UrlTarget target) {
+        RedirectType type = target.redirectType() != null ? target.redirectType() : defaultType;
+        return ResponseEntity.status(type.statusCode())
+                .header(HttpHeaders.LOCATION, target.originalUrl())
+                .header(HttpHeaders.CACHE_CONTROL, type.isPermanent() ? permanentCacheControl(target.expirationTime()) : NO_STORE)
+                .build();
+    }
+
+    private String permanentCacheControl(LocalDateTime expirationTime) {
+        if (expirationTime == null)
+            return permanentCacheControl;
+
+        long untilExpiration = Duration.between(LocalDateTime.now(), expirationTime).toSeconds();
+        if (untilExpiration >= permanentMaxAge)
+            return permanentCacheControl;
+        return untilExpiration > 0 ? publicMaxAge(untilExpiration) : NO_STORE;
+    }
+
+    private static String publicMaxAge(long seconds) {
+        return "public, max-age=" + seconds;
+    }
+
+    private static ResponseEntity<byte[]> plainText(HttpStatus status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(status)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(bytes.length)
+                .body(bytes);
+    }
+}
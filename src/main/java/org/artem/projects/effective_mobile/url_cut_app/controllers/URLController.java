@@ -1,32 +1,115 @@
 package org.artem.projects.effective_mobile.url_cut_app.controllers;
 
-import jakarta.servlet.http.HttpServletResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ClickStatsResponse;
 import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ShortenResult;
+import org.artem.projects.effective_mobile.url_cut_app.exceptions.TooManyBulkItemsException;
 import org.artem.projects.effective_mobile.url_cut_app.service.URLService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/super-url-cutter")
 @RequiredArgsConstructor
 public class URLController {
     private final URLService urlService;
+    private final ObjectMapper objectMapper;
+    private final RedirectResponses redirectResponses;
+
+    @Value("${service.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    @Value("${service.bulk.max-items:20000}")
+    private int bulkMaxItems;
 
     @PostMapping("/shorten")
     public ResponseEntity<String> shorten(@RequestBody CreatingShortedUrlRequest request) {
         return ResponseEntity.ok(urlService.shorten(request));
     }
 
+    @PostMapping(value = "/shorten/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ShortenResult>> shortenAll(@RequestBody List<CreatingShortedUrlRequest> requests) {
+        if (requests.size() > bulkMaxItems)
+            throw new TooManyBulkItemsException(tooManyBulkItemsMessage());
+        List<ShortenResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += bulkChunkSize)
+            results.addAll(urlService.shortenAll(requests.subList(from, Math.min(from + bulkChunkSize, requests.size()))));
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Streams one result line per request line. Lines past {@code max-items} are not read; a final
+     * failure line says so.
+     */
+    @PostMapping(value = "/shorten/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> shortenAllStream(HttpServletRequest request) {
+        ObjectWriter writer = objectMapper.writerFor(ShortenResult.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        StreamingResponseBody body = output -> {
+            try (MappingIterator<CreatingShortedUrlRequest> lines = objectMapper
+                    .readerFor(CreatingShortedUrlRequest.class)
+                    .readValues(request.getInputStream())) {
+                List<CreatingShortedUrlRequest> chunk = new ArrayList<>(bulkChunkSize);
+                int read = 0;
+                boolean truncated = false;
+                while (lines.hasNextValue()) {
+                    if (read++ == bulkMaxItems) {
+                        truncated = true;
+                        break;
+                    }
+                    chunk.add(lines.nextValue());
+                    if (chunk.size() == bulkChunkSize) {
+                        writeLines(writer, output, urlService.shortenAll(chunk));
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty())
+                    writeLines(writer, output, urlService.shortenAll(chunk));
+                if (truncated)
+                    writeLines(writer, output, List.of(ShortenResult.failure(null, tooManyBulkItemsMessage())));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{alies}")
-    public void redirect(@PathVariable String alies, HttpServletResponse response) {
-        String returnUrl = urlService.getOriginalUrlByAlias(alies);
-        try {
-            response.sendRedirect(returnUrl);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    public ResponseEntity<byte[]> redirect(@PathVariable String alies) {
+        return redirectResponses.of(urlService.resolveAlias(alies));
+    }
+
+    @GetMapping("/{alies}/stats")
+    public ResponseEntity<ClickStatsResponse> stats(@PathVariable String alies) {
+        return ResponseEntity.ok(urlService.getClickStats(alies));
+    }
+
+    private String tooManyBulkItemsMessage() {
+        return "Bulk requests are limited to " + bulkMaxItems + " links";
+    }
+
+    private static void writeLines(ObjectWriter writer, OutputStream output, List<ShortenResult> results)
+            throws IOException {
+        for (ShortenResult result : results) {
+            writer.writeValue(output, result);
+            output.write('\n');
         }
+        output.flush();
     }
 }
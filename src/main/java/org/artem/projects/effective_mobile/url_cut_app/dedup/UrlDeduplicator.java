@@ -0,0 +1,175 @@
+package org.artem.projects.effective_mobile.url_cut_app.dedup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.artem.projects.effective_mobile.url_cut_app.cache.Invalidation;
+import org.artem.projects.effective_mobile.url_cut_app.cache.InvalidationListener;
+import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds an existing link for a shorten request with the same original url, so resubmitting a url
+ * returns its link instead of creating another row. Urls are matched by the first 64 bits of the
+ * SHA-256 of their normalized form, stored in {@code original_url_hash}; recently seen hashes are kept
+ * in a small LRU in front of the database. A hash match is confirmed by comparing normalized urls.
+ * <p>
+ * Only requests without a custom alias are deduplicated, against links with the same redirect type
+ * that are permanent when the request is, or otherwise expire no earlier than requested. Links
+ * created before deduplication was enabled have no hash and are never matched, and two concurrent
+ * requests for a new url can still both create a link.
+ */
+@Component
+public class UrlDeduplicator implements InvalidationListener {
+    private final URLRepository urlRepository;
+    private final boolean enabled;
+    private final Cache<Long, UrlDependencies> recent;
+    private final Counter recentHitCounter;
+    private final Counter storedHitCounter;
+    private final Counter missCounter;
+
+    public UrlDeduplicator(URLRepository urlRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${service.dedup.enabled:false}") boolean enabled,
+                           @Value("${service.dedup.recent-size:10000}") long recentSize) {
+        this.urlRepository = urlRepository;
+        this.enabled = enabled;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(recentSize)
+                .build();
+        this.recentHitCounter = getCounter(meterRegistry, "recent");
+        this.storedHitCounter = getCounter(meterRegistry, "stored");
+        this.missCounter = getCounter(meterRegistry, "miss");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Hash to store with a new link, or {@code null} when deduplication is disabled.
+     */
+    public Long hash(String originalUrl) {
+        return enabled && originalUrl != null ? hashNormalized(normalize(originalUrl)) : null;
+    }
+
+    /**
+     * An existing link the request can be answered with, or {@code null}.
+     */
+    public UrlDependencies find(CreatingShortedUrlRequest urlRequest) {
+        if (!enabled || urlRequest.alias() != null || urlRequest.url() == null)
+            return null;
+
+        String normalized = normalize(urlRequest.url());
+        long hash = hashNormalized(normalized);
+        LocalDateTime expirationTime = urlRequest.expirationTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        UrlDependencies cached = recent.getIfPresent(hash);
+        if (cached != null && matches(cached, normalized, urlRequest, expirationTime, now)) {
+            recentHitCounter.increment();
+            return cached;
+        }
+        for (UrlDependencies stored : urlRepository.findByOriginalUrlHash(hash)) {
+            if (matches(stored, normalized, urlRequest, expirationTime, now)) {
+                recent.put(hash, stored);
+                storedHitCounter.increment();
+                return stored;
+            }
+        }
+        missCounter.increment();
+        return null;
+    }
+
+    /**
+     * Keeps a link created on this instance for later lookups; links without a hash are ignored.
+     */
+    public void remember(UrlDependencies url) {
+        if (url.getOriginalUrlHash() != null)
+            recent.put(url.getOriginalUrlHash(), url);
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        if (invalidation.reason() == Invalidation.Reason.RESET) {
+            recent.invalidateAll();
+        } else if (invalidation.reason() == Invalidation.Reason.REMOVED) {
+            Set<String> removed = new HashSet<>(invalidation.aliases());
+            recent.asMap().values().removeIf(url -> removed.contains(url.getAlias()));
+        }
+    }
+
+    private static boolean matches(UrlDependencies url, String normalized, CreatingShortedUrlRequest urlRequest,
+                                   LocalDateTime expirationTime, LocalDateTime now) {
+        if (url.getRedirectType() != urlRequest.redirectType() || !normalize(url.getOriginalUrl()).equals(normalized))
+            return false;
+        if (expirationTime == null)
+            return url.getExpirationTime() == null;
+        return url.getExpirationTime() != null && !url.getExpirationTime().isBefore(expirationTime)
+                && url.getExpirationTime().isAfter(now);
+    }
+
+    /**
+     * Lower-cases the scheme and host, drops a default port and gives an empty path a {@code /}.
+     * Anything that is not an absolute hierarchical url is only stripped of surrounding whitespace.
+     */
+    static String normalize(String url) {
+        String stripped = url.strip();
+        URI uri;
+        try {
+            uri = new URI(stripped);
+        } catch (URISyntaxException e) {
+            return stripped;
+        }
+        if (uri.getScheme() == null || uri.getHost() == null)
+            return stripped;
+
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        if (port == 80 && scheme.equals("http") || port == 443 && scheme.equals("https"))
+            port = -1;
+
+        StringBuilder normalized = new StringBuilder(stripped.length()).append(scheme).append("://");
+        if (uri.getRawUserInfo() != null)
+            normalized.append(uri.getRawUserInfo()).append('@');
+        normalized.append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (port != -1)
+            normalized.append(':').append(port);
+        normalized.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+        if (uri.getRawQuery() != null)
+            normalized.append('?').append(uri.getRawQuery());
+        if (uri.getRawFragment() != null)
+            normalized.append('#').append(uri.getRawFragment());
+        return normalized.toString();
+    }
+
+    private static long hashNormalized(String normalized) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter getCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("urls.dedup.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,6 @@
+package org.artem.projects.effective_mobile.url_cut_app.dto;
+
+import java.time.LocalDateTime;
+
+public record ClickStatsResponse(String alias, long clicks, LocalDateTime lastAccessTime) {
+}
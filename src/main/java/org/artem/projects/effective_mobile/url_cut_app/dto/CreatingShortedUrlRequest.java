@@ -2,9 +2,13 @@ package org.artem.projects.effective_mobile.url_cut_app.dto;
 
 
 import lombok.Builder;
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
 
 import java.time.LocalDateTime;
 
 @Builder
-public record CreatingShortedUrlRequest(String url, String alias, LocalDateTime expiredAfter) {
+public record CreatingShortedUrlRequest(String url, String alias, LocalDateTime expiredAfter, RedirectType redirectType) {
+    public LocalDateTime expirationTime() {
+        return expiredAfter != null ? LocalDateTime.now().plusSeconds(expiredAfter.getSecond()) : null;
+    }
 }
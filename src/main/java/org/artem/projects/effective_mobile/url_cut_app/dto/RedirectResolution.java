@@ -0,0 +1,16 @@
+package org.artem.projects.effective_mobile.url_cut_app.dto;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+
+public record RedirectResolution(Outcome outcome, UrlTarget target) {
+    public static final RedirectResolution NOT_FOUND = new RedirectResolution(Outcome.NOT_FOUND, null);
+    public static final RedirectResolution EXPIRED = new RedirectResolution(Outcome.EXPIRED, null);
+
+    public static RedirectResolution found(UrlTarget target) {
+        return new RedirectResolution(Outcome.FOUND, target);
+    }
+
+    public enum Outcome {
+        FOUND, NOT_FOUND, EXPIRED
+    }
+}
@@ -0,0 +1,14 @@
+package org.artem.projects.effective_mobile.url_cut_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ShortenResult(String url, String shortenedUrl, String error) {
+    public static ShortenResult success(String url, String shortenedUrl) {
+        return new ShortenResult(url, shortenedUrl, null);
+    }
+
+    public static ShortenResult failure(String url, String error) {
+        return new ShortenResult(url, null, error);
+    }
+}
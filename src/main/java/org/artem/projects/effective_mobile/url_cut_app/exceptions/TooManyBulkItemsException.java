@@ -0,0 +1,7 @@
+package org.artem.projects.effective_mobile.url_cut_app.exceptions;
+
+public class TooManyBulkItemsException extends RuntimeException {
+    public TooManyBulkItemsException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +0,0 @@
-package org.artem.projects.effective_mobile.url_cut_app.exceptions;
-
-public class UrlTimeExpiredLivenessException extends RuntimeException {
-    public UrlTimeExpiredLivenessException(String s) {
-        super(s);
-    }
-}
@@ -0,0 +1,126 @@
+package org.artem.projects.effective_mobile.url_cut_app.filters;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * With virtual threads Tomcat no longer caps concurrent requests, so excess load would queue inside
+ * the Hikari pool for its whole connection timeout. This filter restores a bound of
+ * {@code in-flight-per-connection} requests per pool connection, unless {@code max-in-flight} sets one,
+ * and sheds the rest quickly with 503. A request that goes async keeps its permit until the async
+ * response finishes.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Counter rejectedCounter;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${service.virtual-threads.max-in-flight:0}") int maxInFlight,
+                                  @Value("${service.virtual-threads.in-flight-per-connection:4}") int inFlightPerConnection,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                  @Value("${service.virtual-threads.acquire-timeout:100ms}") Duration acquireTimeout) {
+        int limit = maxInFlight > 0 ? maxInFlight : inFlightPerConnection * poolSize;
+        this.permits = new Semaphore(limit);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.rejectedCounter = Counter.builder("http.server.requests.rejected")
+                .description("Requests shed because the in-flight limit was reached")
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.in-flight", permits, semaphore -> limit - semaphore.availablePermits())
+                .description("Requests currently holding an in-flight permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejectedCounter.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            if (async)
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+        } finally {
+            if (!async)
+                permits.release();
+        }
+    }
+
+    /**
+     * Holds the permit until an async response (such as a streamed bulk result) completes, times out
+     * or fails, rather than until the request thread hands it off.
+     */
+    private class ReleaseOnComplete implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true))
+                permits.release();
+        }
+    }
+}
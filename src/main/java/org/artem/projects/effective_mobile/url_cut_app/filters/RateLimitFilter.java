@@ -0,0 +1,62 @@
+package org.artem.projects.effective_mobile.url_cut_app.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Answers clients over their {@link RateLimiter} budget with 429 before they reach the concurrency
+ * limit or the connection pool. {@code POST /shorten/bulk} spends the bulk budget, other {@code POST}
+ * requests the create budget and everything else the redirect budget. Clients are keyed by remote address, or by {@code key-header} when it is set; only
+ * set it when a gateway in front authenticates that header, since clients could otherwise pick a
+ * fresh key per request.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "service.rate-limit.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final String keyHeader;
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           @Value("${service.rate-limit.key-header:}") String keyHeader) {
+        this.rateLimiter = rateLimiter;
+        this.keyHeader = keyHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimiter.Budget budget = RateLimiter.Budget.of(HttpMethod.POST.matches(request.getMethod()),
+                request.getRequestURI());
+        String key = keyHeader.isEmpty() ? null : request.getHeader(keyHeader);
+        Duration retryAfter = rateLimiter.admit(budget, key != null ? "key:" + key : "ip:" + request.getRemoteAddr());
+
+        if (!retryAfter.isZero()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RateLimiter.retryAfterSeconds(retryAfter));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
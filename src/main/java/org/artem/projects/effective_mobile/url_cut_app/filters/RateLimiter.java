@@ -0,0 +1,115 @@
+package org.artem.projects.effective_mobile.url_cut_app.filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets, with separate budgets for creating links, for bulk requests and for
+ * redirects so that a client flooding one cannot spend the others. A bulk request creates up to
+ * {@code service.bulk.max-items} links, so it has a budget of its own rather than a single create token. Each bucket is a single theoretical arrival time
+ * updated with compare-and-set (GCRA): a request is admitted while the arrival time it would push
+ * forward stays within {@code burst} intervals of now. Buckets live in a bounded cache and are
+ * evicted once idle long enough to be full again, or when {@code max-clients} is reached.
+ */
+@Component
+@ConditionalOnProperty(name = "service.rate-limit.enabled", havingValue = "true")
+public class RateLimiter {
+    private final Buckets create;
+    private final Buckets bulk;
+    private final Buckets redirect;
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${service.rate-limit.create.rate:20}") double createRate,
+                       @Value("${service.rate-limit.create.burst:40}") int createBurst,
+                       @Value("${service.rate-limit.bulk.rate:0.2}") double bulkRate,
+                       @Value("${service.rate-limit.bulk.burst:2}") int bulkBurst,
+                       @Value("${service.rate-limit.redirect.rate:200}") double redirectRate,
+                       @Value("${service.rate-limit.redirect.burst:400}") int redirectBurst,
+                       @Value("${service.rate-limit.max-clients:100000}") long maxClients) {
+        this.create = new Buckets(meterRegistry, "create", createRate, createBurst, maxClients);
+        this.bulk = new Buckets(meterRegistry, "bulk", bulkRate, bulkBurst, maxClients);
+        this.redirect = new Buckets(meterRegistry, "redirect", redirectRate, redirectBurst, maxClients);
+    }
+
+    /**
+     * Takes a token from the client's bucket and returns zero, or returns how long until one is
+     * available without taking it.
+     */
+    public Duration admit(Budget budget, String client) {
+        Buckets buckets = switch (budget) {
+            case CREATE -> create;
+            case BULK -> bulk;
+            case REDIRECT -> redirect;
+        };
+        return buckets.admit(client);
+    }
+
+    /**
+     * Whole seconds for a {@code Retry-After} header, rounded up and at least one.
+     */
+    public static String retryAfterSeconds(Duration wait) {
+        long seconds = wait.plusNanos(999_999_999).getSeconds();
+        return Long.toString(Math.max(seconds, 1));
+    }
+
+    public enum Budget {
+        CREATE,
+        BULK,
+        REDIRECT;
+
+        public static Budget of(boolean post, String path) {
+            if (!post)
+                return REDIRECT;
+            return path.endsWith("/shorten/bulk") ? BULK : CREATE;
+        }
+    }
+
+    private static class Buckets {
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Cache<String, AtomicLong> arrivals;
+        private final Counter rejectedCounter;
+
+        Buckets(MeterRegistry meterRegistry, String budget, double rate, int burst, long maxClients) {
+            this.intervalNanos = (long) (1_000_000_000 / rate);
+            this.burstNanos = intervalNanos * burst;
+            this.arrivals = Caffeine.newBuilder()
+                    .maximumSize(maxClients)
+                    .expireAfterAccess(Duration.ofNanos(burstNanos))
+                    .build();
+            this.rejectedCounter = Counter.builder("http.server.requests.rejected")
+                    .description("Requests shed because the client ran out of its rate limit budget")
+                    .tag("reason", "rate-limit-" + budget)
+                    .register(meterRegistry);
+            Gauge.builder("urls.rate-limit.clients", arrivals, Cache::estimatedSize)
+                    .description("Clients with a tracked rate limit bucket")
+                    .tag("budget", budget)
+                    .register(meterRegistry);
+        }
+
+        Duration admit(String client) {
+            long now = System.nanoTime();
+            AtomicLong arrival = arrivals.get(client, key -> new AtomicLong(now));
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long excess = next - now - burstNanos;
+                if (excess > 0) {
+                    rejectedCounter.increment();
+                    return Duration.ofNanos(excess);
+                }
+                if (arrival.compareAndSet(current, next))
+                    return Duration.ZERO;
+            }
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package org.artem.projects.effective_mobile.url_cut_app.journal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of links accepted by the write-behind path, split into segment files that are
+ * deleted once every link in them has been released. Appends from concurrent requests are written
+ * and fsynced together by a single writer thread, so a burst of requests shares one sync.
+ * <p>
+ * Record: {@code length:int crc32:int payload}. On replay a record that is cut short or fails its
+ * checksum ends the segment, and the torn tail is truncated.
+ */
+@Slf4j
+class UrlJournal implements Closeable {
+    private static final String SEGMENT_PREFIX = "urls-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final Timer syncTimer;
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+    private final Map<Long, AtomicLong> unreleased = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile boolean closed;
+    private volatile long segment;
+    private FileChannel channel;
+
+    UrlJournal(Path directory, long segmentSize, MeterRegistry meterRegistry,
+               ObjLongConsumer<UrlDependencies> replayed) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncTimer = Timer.builder("urls.journal.sync")
+                .description("Duration of a journal write and fsync, shared by every link in the group")
+                .register(meterRegistry);
+
+        Files.createDirectories(directory);
+        openSegment(replay(replayed) + 1);
+        this.writer = new Thread(this::writeLoop, "url-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Completes with the segment holding the link once it is synced to disk.
+     */
+    CompletableFuture<Long> append(UrlDependencies url) {
+        Append append = new Append(encode(url), new CompletableFuture<>());
+        // Checked and enqueued under the lock close() takes, so nothing is enqueued after the writer may have exited.
+        appendLock.lock();
+        try {
+            if (closed)
+                return CompletableFuture.failedFuture(new IllegalStateException("Url journal is closed"));
+            appends.add(append);
+        } finally {
+            appendLock.unlock();
+        }
+        return append.synced();
+    }
+
+    /**
+     * Marks one link of the segment as stored elsewhere; a finished segment is deleted with its last link.
+     */
+    void release(long releasedSegment) {
+        AtomicLong count = unreleased.get(releasedSegment);
+        if (count != null && count.decrementAndGet() == 0)
+            deleteIfFinished(releasedSegment, count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Left behind only if the writer was interrupted; their callers must not wait forever.
+        List<Append> unwritten = new ArrayList<>();
+        appends.drainTo(unwritten);
+        unwritten.forEach(append -> append.synced().completeExceptionally(new IllegalStateException("Url journal is closed")));
+        channel.close();
+        retire(segment);
+    }
+
+    private void writeLoop() {
+        List<Append> group = new ArrayList<>();
+        while (!closed || !appends.isEmpty()) {
+            try {
+                Append first = appends.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                group.add(first);
+                appends.drainTo(group);
+                write(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void write(List<Append> group) {
+        int size = 0;
+        for (Append append : group)
+            size += append.bytes().length;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        group.forEach(append -> buffer.put(append.bytes()));
+        buffer.flip();
+
+        long start = System.nanoTime();
+        long position = -1;
+        try {
+            position = channel.position();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        } catch (IOException e) {
+            log.error("Could not write {} links to journal segment {}", group.size(), segment, e);
+            truncate(position);
+            group.forEach(append -> append.synced().completeExceptionally(e));
+            return;
+        }
+        syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        long written = segment;
+        unreleased.computeIfAbsent(written, key -> new AtomicLong()).addAndGet(group.size());
+        if (position + size >= segmentSize)
+            rotate();
+        group.forEach(append -> append.synced().complete(written));
+    }
+
+    private void rotate() {
+        long finished = segment;
+        FileChannel finishedChannel = channel;
+        try {
+            openSegment(finished + 1);
+            finishedChannel.close();
+        } catch (IOException e) {
+            log.warn("Could not rotate journal segment {}, will retry after the next write", finished, e);
+            return;
+        }
+        retire(finished);
+    }
+
+    // Stops appends to the segment and deletes it now if all its links are released, otherwise with the last one.
+    private void retire(long finished) {
+        if (segment == finished)
+            segment = -1;
+        AtomicLong count = unreleased.get(finished);
+        if (count == null || count.get() == 0)
+            deleteIfFinished(finished, count);
+    }
+
+    private void openSegment(long next) throws IOException {
+        channel = FileChannel.open(segmentPath(next), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segment = next;
+    }
+
+    private void deleteIfFinished(long finished, AtomicLong count) {
+        if (finished == segment || (count != null && !unreleased.remove(finished, count)))
+            return;
+        try {
+            Files.deleteIfExists(segmentPath(finished));
+        } catch (IOException e) {
+            log.warn("Could not delete journal segment {}", finished, e);
+        }
+    }
+
+    private void truncate(long position) {
+        try {
+            if (position >= 0)
+                channel.truncate(position);
+        } catch (IOException e) {
+            log.warn("Could not truncate journal segment {} after a failed write", segment, e);
+        }
+    }
+
+    private long replay(ObjLongConsumer<UrlDependencies> replayed) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted((a, b) -> Long.compare(segmentId(a), segmentId(b)))
+                    .toList();
+        }
+
+        long last = 0;
+        for (Path file : files) {
+            long replayedSegment = segmentId(file);
+            last = Math.max(last, replayedSegment);
+            long count = replaySegment(file, url -> replayed.accept(url, replayedSegment));
+            if (count == 0)
+                Files.delete(file);
+            else
+                unreleased.put(replayedSegment, new AtomicLong(count));
+        }
+        return last;
+    }
+
+    private static long replaySegment(Path file, Consumer<UrlDependencies> replayed) throws IOException {
+        long count = 0;
+        long position = 0;
+        try (FileChannel segmentChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(segmentChannel)));
+            long size = segmentChannel.size();
+            while (position + RECORD_HEADER_SIZE <= size) {
+                int length = input.readInt();
+                int checksum = input.readInt();
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > size)
+                    break;
+                byte[] payload = input.readNBytes(length);
+                if (checksum(payload) != checksum)
+                    break;
+                replayed.accept(decode(payload));
+                count++;
+                position += RECORD_HEADER_SIZE + length;
+            }
+            if (position < size) {
+                log.warn("Truncating torn tail of journal {} at {} of {} bytes", file, position, size);
+                segmentChannel.truncate(position);
+            }
+        }
+        return count;
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%019d", id) + SEGMENT_SUFFIX);
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static byte[] encode(UrlDependencies url) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(0);
+            output.writeInt(0);
+            writeString(output, url.getAlias());
+            writeString(output, url.getOriginalUrl());
+            writeString(output, url.getShortenedUrl());
+            LocalDateTime expirationTime = url.getExpirationTime();
+            output.writeBoolean(expirationTime != null);
+            if (expirationTime != null) {
+                output.writeLong(expirationTime.toEpochSecond(ZoneOffset.UTC));
+                output.writeInt(expirationTime.getNano());
+            }
+            writeString(output, url.getRedirectType() != null ? url.getRedirectType().name() : "");
+            output.writeBoolean(url.getOriginalUrlHash() != null);
+            if (url.getOriginalUrlHash() != null)
+                output.writeLong(url.getOriginalUrlHash());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        int length = record.capacity() - RECORD_HEADER_SIZE;
+        record.putInt(0, length);
+        record.putInt(4, checksum(record.array(), RECORD_HEADER_SIZE, length));
+        return record.array();
+    }
+
+    static UrlDependencies decode(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        UrlDependencies.UrlDependenciesBuilder url = UrlDependencies.builder()
+                .alias(readString(input))
+                .originalUrl(readString(input))
+                .shortenedUrl(readString(input));
+        if (input.readBoolean())
+            url.expirationTime(LocalDateTime.ofEpochSecond(input.readLong(), input.readInt(), ZoneOffset.UTC));
+        String redirectType = readString(input);
+        url.redirectType(redirectType.isEmpty() ? null : RedirectType.valueOf(redirectType));
+        // Records written before the hash was journaled end here
+        if (input.available() > 0 && input.readBoolean())
+            url.originalUrlHash(input.readLong());
+        return url.build();
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return new String(input.readNBytes(input.readInt()), StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] payload) {
+        return checksum(payload, 0, payload.length);
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private record Append(byte[] bytes, CompletableFuture<Long> synced) {
+    }
+}
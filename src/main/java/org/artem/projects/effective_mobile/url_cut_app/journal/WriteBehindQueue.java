@@ -0,0 +1,356 @@
+package org.artem.projects.effective_mobile.url_cut_app.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.artem.projects.effective_mobile.url_cut_app.cache.AliasFilter;
+import org.artem.projects.effective_mobile.url_cut_app.cache.Invalidation;
+import org.artem.projects.effective_mobile.url_cut_app.cache.InvalidationBus;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind path for new links. A submitted link is reserved in memory, appended to the
+ * fsynced {@link UrlJournal} and acknowledged; a scheduled drain then inserts queued links in batches
+ * and releases them from the journal. Links still in the journal on startup are replayed into the
+ * queue, so an acknowledged link survives a crash. Until a link is drained redirects are answered
+ * from {@link #find(String)} on this instance. Other instances learn about the alias through the
+ * {@link InvalidationBus} as soon as it is journaled, so their alias filter sends lookups to the
+ * database, which has the link once it is drained.
+ * <p>
+ * When a batch fails with anything but a transient or connection error, its links are inserted one
+ * at a time and those that still fail are parked: they stay journaled and answerable, are retried
+ * every {@code parked-retry-interval}, and no longer hold up the links behind them.
+ * <p>
+ * A link whose alias another instance stored with a different target is dead-lettered: it stops
+ * redirecting but is never released from the journal, so it is reported again on every startup
+ * until an operator re-creates it and removes the segment.
+ */
+@Slf4j
+@Component
+public class WriteBehindQueue implements DisposableBean {
+    private final URLRepository urlRepository;
+    private final AliasFilter aliasFilter;
+    private final InvalidationBus invalidationBus;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPending;
+    private final long parkedRetryMillis;
+    private final Map<String, UrlDependencies> pending = new ConcurrentHashMap<>();
+    private final Queue<Journaled> queue = new ConcurrentLinkedQueue<>();
+    private final Queue<Journaled> parked = new ConcurrentLinkedQueue<>();
+    private final Queue<Journaled> conflicted = new ConcurrentLinkedQueue<>();
+    // Held across database calls, so it must not be a monitor that pins a virtual thread
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Counter conflictCounter;
+    private final Counter parkedCounter;
+    private final Timer drainTimer;
+    private final UrlJournal journal;
+    private long nextParkedRetry;
+
+    public WriteBehindQueue(URLRepository urlRepository,
+                            AliasFilter aliasFilter,
+                            InvalidationBus invalidationBus,
+                            MeterRegistry meterRegistry,
+                            @Value("${service.write-behind.enabled:false}") boolean enabled,
+                            @Value("${service.write-behind.directory:data/journal}") Path directory,
+                            @Value("${service.write-behind.segment-size:64MB}") DataSize segmentSize,
+                            @Value("${service.write-behind.batch-size:1000}") int batchSize,
+                            @Value("${service.write-behind.max-pending:100000}") int maxPending,
+                            @Value("${service.write-behind.parked-retry-interval:PT1M}") Duration parkedRetryInterval) {
+        this.urlRepository = urlRepository;
+        this.aliasFilter = aliasFilter;
+        this.invalidationBus = invalidationBus;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.parkedRetryMillis = parkedRetryInterval.toMillis();
+        this.conflictCounter = Counter.builder("urls.write-behind.conflicts")
+                .description("Journaled links whose alias was taken by another instance before the drain")
+                .register(meterRegistry);
+        Gauge.builder("urls.write-behind.conflicted", conflicted, Queue::size)
+                .description("Dead-lettered links kept in the journal because their alias holds another target")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("urls.write-behind.parked.total")
+                .description("Journaled links parked because inserting them failed on their own")
+                .register(meterRegistry);
+        Gauge.builder("urls.write-behind.parked", parked, Queue::size)
+                .description("Parked links waiting for their next retry")
+                .register(meterRegistry);
+        this.drainTimer = Timer.builder("urls.write-behind.drain")
+                .description("Duration of a write-behind drain batch")
+                .register(meterRegistry);
+        Gauge.builder("urls.write-behind.pending", pending, Map::size)
+                .description("Links acknowledged but not yet inserted")
+                .register(meterRegistry);
+        Gauge.builder("urls.write-behind.lag", queue, WriteBehindQueue::lagSeconds)
+                .description("Age of the oldest link waiting to be inserted")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        this.journal = enabled ? openJournal(directory, segmentSize.toBytes(), meterRegistry) : null;
+    }
+
+    /**
+     * Whether new links can be submitted; false when disabled or when the drain has fallen
+     * {@code max-pending} links behind, in which case callers should insert synchronously.
+     */
+    public boolean isAccepting() {
+        return enabled && pending.size() < maxPending;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isPending(String alias) {
+        return enabled && pending.containsKey(alias);
+    }
+
+    /**
+     * Returns the target of a link that is acknowledged but not yet inserted, otherwise {@code null}.
+     */
+    public UrlTarget find(String alias) {
+        if (!enabled)
+            return null;
+
+        UrlDependencies url = pending.get(alias);
+        return url != null ? new UrlTarget(url.getOriginalUrl(), url.getExpirationTime(), url.getRedirectType()) : null;
+    }
+
+    /**
+     * Journals the link and returns once it is on disk, or returns {@code false} if its alias is
+     * already pending.
+     */
+    public boolean submit(UrlDependencies url) {
+        if (pending.putIfAbsent(url.getAlias(), url) != null)
+            return false;
+
+        long segment;
+        try {
+            segment = journal.append(url).join();
+        } catch (CompletionException e) {
+            pending.remove(url.getAlias());
+            throw new IllegalStateException("Could not journal link '" + url.getAlias() + "'", e.getCause());
+        }
+        queue.add(new Journaled(url, segment, System.currentTimeMillis()));
+        invalidationBus.publish(Invalidation.created(List.of(url.getAlias())));
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${service.write-behind.drain-interval:PT0.2S}")
+    public void drain() {
+        if (!enabled)
+            return;
+
+        try {
+            retryParked();
+            while (!queue.isEmpty())
+                drainTimer.record(this::drainBatch);
+        } catch (DataAccessException e) {
+            log.warn("Could not drain {} write-behind links, will retry", queue.size(), e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (!enabled)
+            return;
+
+        journal.close();
+        try {
+            while (!queue.isEmpty())
+                drainBatch();
+        } catch (DataAccessException e) {
+            log.warn("Could not drain {} write-behind links on shutdown, they will be replayed on startup", queue.size(), e);
+        }
+    }
+
+    // Only the drain removes from the queue, so the batch read here is still its head afterwards.
+    private void drainBatch() {
+        drainLock.lock();
+        try {
+            insertHeadBatch();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void insertHeadBatch() {
+        List<UrlDependencies> batch = new ArrayList<>(batchSize);
+        Iterator<Journaled> head = queue.iterator();
+        while (head.hasNext() && batch.size() < batchSize)
+            batch.add(head.next().url());
+        if (batch.isEmpty())
+            return;
+
+        boolean[] inserted;
+        try {
+            inserted = urlRepository.insertAllIfAliasAbsent(batch);
+        } catch (DataAccessException e) {
+            if (isOutage(e))
+                throw e;
+            log.warn("Could not insert a batch of {} write-behind links, inserting them one at a time", batch.size(), e);
+            drainOneByOne(batch.size());
+            return;
+        }
+        List<String> created = new ArrayList<>(batch.size());
+        for (boolean linkInserted : inserted) {
+            Journaled journaled = queue.poll();
+            if (complete(journaled, linkInserted))
+                created.add(journaled.url().getAlias());
+        }
+        if (!created.isEmpty())
+            invalidationBus.publish(Invalidation.created(created));
+    }
+
+    private void drainOneByOne(int count) {
+        List<String> created = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                Journaled journaled = queue.peek();
+                try {
+                    if (complete(journaled, insert(journaled)))
+                        created.add(journaled.url().getAlias());
+                } catch (DataAccessException e) {
+                    if (isOutage(e))
+                        throw e;
+                    parked.add(journaled);
+                    parkedCounter.increment();
+                    log.error("Parking write-behind link '{}' for {}, it will be retried every {} ms",
+                            journaled.url().getAlias(), journaled.url().getOriginalUrl(), parkedRetryMillis, e);
+                }
+                queue.poll();
+            }
+        } finally {
+            if (!created.isEmpty())
+                invalidationBus.publish(Invalidation.created(created));
+        }
+    }
+
+    private void retryParked() {
+        drainLock.lock();
+        try {
+            insertParked();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void insertParked() {
+        long now = System.currentTimeMillis();
+        if (parked.isEmpty() || now < nextParkedRetry)
+            return;
+        nextParkedRetry = now + parkedRetryMillis;
+
+        List<String> created = new ArrayList<>();
+        try {
+            Iterator<Journaled> links = parked.iterator();
+            while (links.hasNext()) {
+                Journaled journaled = links.next();
+                try {
+                    if (complete(journaled, insert(journaled)))
+                        created.add(journaled.url().getAlias());
+                    links.remove();
+                } catch (DataAccessException e) {
+                    if (isOutage(e))
+                        throw e;
+                    log.debug("Parked write-behind link '{}' still cannot be inserted", journaled.url().getAlias(), e);
+                }
+            }
+        } finally {
+            if (!created.isEmpty())
+                invalidationBus.publish(Invalidation.created(created));
+        }
+        if (!parked.isEmpty())
+            log.warn("{} write-behind links remain parked", parked.size());
+    }
+
+    private boolean insert(Journaled journaled) {
+        return urlRepository.insertAllIfAliasAbsent(List.of(journaled.url()))[0];
+    }
+
+    // Returns whether the link is now stored; a conflicted one is dead-lettered and keeps its journal record.
+    private boolean complete(Journaled journaled, boolean inserted) {
+        UrlDependencies url = journaled.url();
+        if (!inserted && isConflict(url)) {
+            deadLetter(journaled);
+            return false;
+        }
+        aliasFilter.add(url.getAlias());
+        pending.remove(url.getAlias());
+        journal.release(journaled.segment());
+        return true;
+    }
+
+    private void deadLetter(Journaled journaled) {
+        UrlDependencies url = journaled.url();
+        conflicted.add(journaled);
+        pending.remove(url.getAlias());
+        conflictCounter.increment();
+        log.error("Journaled alias '{}' for {} was taken with another target before it could be inserted; "
+                        + "the link stays in journal segment {} until it is re-created by hand",
+                url.getAlias(), url.getOriginalUrl(), journaled.segment());
+    }
+
+    // Errors that would fail any insert, unlike one that a single link's data provokes.
+    private static boolean isOutage(DataAccessException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    // A replayed link may already have been inserted before the restart; only a different target is a conflict.
+    private boolean isConflict(UrlDependencies url) {
+        UrlTarget stored = urlRepository.findTargetByAlias(url.getAlias()).orElse(null);
+        return stored == null || !stored.originalUrl().equals(url.getOriginalUrl());
+    }
+
+    private UrlJournal openJournal(Path directory, long segmentSize, MeterRegistry meterRegistry) {
+        try {
+            UrlJournal opened = new UrlJournal(directory, segmentSize, meterRegistry, (url, segment) -> {
+                pending.put(url.getAlias(), url);
+                queue.add(new Journaled(url, segment, System.currentTimeMillis()));
+            });
+            if (!queue.isEmpty())
+                log.info("Replayed {} write-behind links from {}", queue.size(), directory);
+            return opened;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open url journal " + directory, e);
+        }
+    }
+
+    private static double lagSeconds(Queue<Journaled> queue) {
+        Journaled oldest = queue.peek();
+        return oldest != null ? (System.currentTimeMillis() - oldest.acceptedAt()) / 1000.0 : 0;
+    }
+
+    private record Journaled(UrlDependencies url, long segment, long acceptedAt) {
+    }
+}
@@ -0,0 +1,87 @@
+package org.artem.projects.effective_mobile.url_cut_app.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.artem.projects.effective_mobile.url_cut_app.dto.RedirectResolution;
+import org.artem.projects.effective_mobile.url_cut_app.exceptions.AliasAlreadyUsedException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the shorten and redirect paths, tagged by outcome so that not-found and expired
+ * redirects (and rejected custom aliases) are counted by the timer itself. Timers are registered up
+ * front to keep meter lookups off the hot path; their histograms are enabled through
+ * {@code management.metrics.distribution.percentiles-histogram}.
+ */
+@Component
+public class UrlServiceMetrics {
+    private final Timer shortenCreated;
+    private final Timer shortenAliasUsed;
+    private final Timer shortenFailed;
+    private final Timer redirectFound;
+    private final Timer redirectNotFound;
+    private final Timer redirectExpired;
+    private final Timer redirectFailed;
+    private final Counter aliasCollisions;
+
+    public UrlServiceMetrics(MeterRegistry meterRegistry) {
+        this.shortenCreated = timer(meterRegistry, "urls.shorten", "created");
+        this.shortenAliasUsed = timer(meterRegistry, "urls.shorten", "alias-used");
+        this.shortenFailed = timer(meterRegistry, "urls.shorten", "error");
+        this.redirectFound = timer(meterRegistry, "urls.redirect", "found");
+        this.redirectNotFound = timer(meterRegistry, "urls.redirect", "not-found");
+        this.redirectExpired = timer(meterRegistry, "urls.redirect", "expired");
+        this.redirectFailed = timer(meterRegistry, "urls.redirect", "error");
+        this.aliasCollisions = Counter.builder("urls.alias.collisions")
+                .description("Generated aliases that were already taken and had to be regenerated")
+                .register(meterRegistry);
+    }
+
+    public <T> T timeShorten(Supplier<T> shorten) {
+        long startTime = System.nanoTime();
+        try {
+            T result = shorten.get();
+            recordShorten(null, startTime);
+            return result;
+        } catch (RuntimeException e) {
+            recordShorten(e, startTime);
+            throw e;
+        }
+    }
+
+    /**
+     * Records a shorten started at {@code startTime} ({@link System#nanoTime()}) that completed with
+     * the given error, or successfully when it is {@code null}.
+     */
+    public void recordShorten(Throwable error, long startTime) {
+        Timer timer = error == null ? shortenCreated
+                : error instanceof AliasAlreadyUsedException ? shortenAliasUsed : shortenFailed;
+        timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a redirect started at {@code startTime} ({@link System#nanoTime()}); a {@code null}
+     * resolution means the lookup failed with an exception.
+     */
+    public void recordRedirect(RedirectResolution resolution, long startTime) {
+        Timer timer = resolution == null ? redirectFailed : switch (resolution.outcome()) {
+            case FOUND -> redirectFound;
+            case NOT_FOUND -> redirectNotFound;
+            case EXPIRED -> redirectExpired;
+        };
+        timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    public void aliasCollision() {
+        aliasCollisions.increment();
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String outcome) {
+        return Timer.builder(name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package org.artem.projects.effective_mobile.url_cut_app.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event, emitted when a virtual thread blocks while
+ * pinned to its carrier (inside {@code synchronized} or a native frame), into a Micrometer timer.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements DisposableBean {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final RecordingStream recordingStream;
+    private final Timer pinnedTimer;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${service.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent blocked while pinned to a carrier thread")
+                .register(meterRegistry);
+        this.recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        if (log.isDebugEnabled() && event.getStackTrace() != null)
+            log.debug("Virtual thread pinned for {} at {}", event.getDuration(), firstApplicationFrame(event));
+    }
+
+    private static String firstApplicationFrame(RecordedEvent event) {
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk."))
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+        }
+        return "unknown";
+    }
+
+    @Override
+    public void destroy() {
+        recordingStream.close();
+    }
+}
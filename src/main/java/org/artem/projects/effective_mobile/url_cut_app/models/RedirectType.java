@@ -0,0 +1,28 @@
+package org.artem.projects.effective_mobile.url_cut_app.models;
+
+public enum RedirectType {
+    MOVED_PERMANENTLY(301, true),
+    FOUND(302, false),
+    TEMPORARY_REDIRECT(307, false),
+    PERMANENT_REDIRECT(308, true);
+
+    private final int statusCode;
+    private final boolean permanent;
+
+    RedirectType(int statusCode, boolean permanent) {
+        this.statusCode = statusCode;
+        this.permanent = permanent;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public boolean isPermanent() {
+        return permanent;
+    }
+
+    public static RedirectType fromName(String name) {
+        return name != null ? valueOf(name) : null;
+    }
+}
@@ -0,0 +1,28 @@
+package org.artem.projects.effective_mobile.url_cut_app.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "url_click_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UrlClickStats {
+    @Id
+    private String alias;
+
+    private long clicks;
+
+    @Column(name = "last_access_time")
+    private LocalDateTime lastAccessTime;
+}
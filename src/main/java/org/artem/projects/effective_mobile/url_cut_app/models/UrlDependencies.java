@@ -17,21 +17,30 @@ import java.time.LocalDateTime;
 @Builder
 public class UrlDependencies {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "urldependencies_seq")
+    @SequenceGenerator(name = "urldependencies_seq", sequenceName = "urldependencies_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "original_url")
     @NotNull
     private String originalUrl;
 
+    @Column(unique = true)
     @NotNull
     private String alias;
 
-    @Column(name = "shortened_url", unique = true)
+    @Column(name = "shortened_url")
     @NotNull
     private String shortenedUrl;
 
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "expiration_time")
     private LocalDateTime expirationTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "redirect_type")
+    private RedirectType redirectType;
+
+    @Column(name = "original_url_hash")
+    private Long originalUrlHash;
 }
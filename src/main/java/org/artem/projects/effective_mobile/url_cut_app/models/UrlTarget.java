@@ -0,0 +1,9 @@
+package org.artem.projects.effective_mobile.url_cut_app.models;
+
+import java.time.LocalDateTime;
+
+public record UrlTarget(String originalUrl, LocalDateTime expirationTime, RedirectType redirectType) {
+    public boolean isExpiredAt(LocalDateTime moment) {
+        return expirationTime != null && expirationTime.isBefore(moment);
+    }
+}
@@ -0,0 +1,13 @@
+package org.artem.projects.effective_mobile.url_cut_app.repositories;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlClickStats;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public interface ClickStatsJdbcRepository {
+    void upsertAll(List<UrlClickStats> stats);
+    int forEachMostClicked(int limit, LocalDateTime moment, BiConsumer<String, UrlTarget> consumer);
+}
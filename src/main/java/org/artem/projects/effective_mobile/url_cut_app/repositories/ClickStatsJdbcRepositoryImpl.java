@@ -0,0 +1,60 @@
+package org.artem.projects.effective_mobile.url_cut_app.repositories;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlClickStats;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public class ClickStatsJdbcRepositoryImpl implements ClickStatsJdbcRepository {
+    private static final String UPSERT = """
+            insert into url_click_stats (alias, clicks, last_access_time)
+            values (?, ?, ?)
+            on conflict (alias) do update
+            set clicks = url_click_stats.clicks + excluded.clicks,
+                last_access_time = greatest(url_click_stats.last_access_time, excluded.last_access_time)""";
+    private static final String SELECT_MOST_CLICKED = """
+            select u.alias, u.original_url, u.expiration_time, u.redirect_type
+            from (select alias from url_click_stats order by clicks desc limit ?) s
+            join urldependencies u on u.alias = s.alias
+            where u.expiration_time is null or u.expiration_time > ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ClickStatsJdbcRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void upsertAll(List<UrlClickStats> stats) {
+        jdbcTemplate.batchUpdate(UPSERT, stats, batchSize, (statement, clickStats) -> {
+            statement.setString(1, clickStats.getAlias());
+            statement.setLong(2, clickStats.getClicks());
+            statement.setTimestamp(3, Timestamp.valueOf(clickStats.getLastAccessTime()));
+        });
+    }
+
+    /**
+     * Streams the targets of the {@code limit} most clicked links that have not expired at
+     * {@code moment} and returns how many there were. {@code clicks} is not indexed, since that would
+     * make every flush a non-HOT update, so this sorts the whole stats table.
+     */
+    @Override
+    public int forEachMostClicked(int limit, LocalDateTime moment, BiConsumer<String, UrlTarget> consumer) {
+        int[] count = {0};
+        jdbcTemplate.query(SELECT_MOST_CLICKED, resultSet -> {
+            count[0]++;
+            consumer.accept(resultSet.getString(1), new UrlTarget(resultSet.getString(2),
+                    resultSet.getObject(3, LocalDateTime.class), RedirectType.fromName(resultSet.getString(4))));
+        }, limit, Timestamp.valueOf(moment));
+        return count[0];
+    }
+}
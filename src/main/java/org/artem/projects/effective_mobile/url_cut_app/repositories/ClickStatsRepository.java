@@ -0,0 +1,9 @@
+package org.artem.projects.effective_mobile.url_cut_app.repositories;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlClickStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClickStatsRepository extends JpaRepository<UrlClickStats, String>, ClickStatsJdbcRepository {
+}
@@ -0,0 +1,22 @@
+package org.artem.projects.effective_mobile.url_cut_app.repositories;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public interface URLJdbcRepository {
+    Optional<UrlTarget> findTargetByAlias(String alias);
+    boolean[] insertAllIfAliasAbsent(List<UrlDependencies> urls);
+    List<UrlDependencies> findByOriginalUrlHash(long originalUrlHash);
+    List<String> partitions();
+    List<String> deleteExpired(String partition, LocalDateTime moment, int limit);
+    long estimatedCount();
+    Instant forEachAliasCreatedAfter(Instant createdAfter, Consumer<String> consumer);
+    Instant forEachTargetCreatedAfter(Instant createdAfter, BiConsumer<String, UrlTarget> consumer);
+}
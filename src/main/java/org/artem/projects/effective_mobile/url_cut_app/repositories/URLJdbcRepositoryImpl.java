@@ -0,0 +1,187 @@
+package org.artem.projects.effective_mobile.url_cut_app.repositories;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public class URLJdbcRepositoryImpl implements URLJdbcRepository {
+    private static final String SELECT_TARGET = """
+            select original_url, expiration_time, redirect_type
+            from urldependencies
+            where alias = ?""";
+    private static final String INSERT_IF_ALIAS_ABSENT = """
+            insert into urldependencies (original_url, alias, shortened_url, expiration_time, redirect_type, original_url_hash)
+            values (?, ?, ?, ?, ?, ?)
+            on conflict do nothing""";
+    private static final String SELECT_BY_ORIGINAL_URL_HASH = """
+            select alias, original_url, shortened_url, expiration_time, redirect_type
+            from urldependencies
+            where original_url_hash = ?""";
+    private static final String SELECT_PARTITIONS = """
+            select inhrelid::regclass::text
+            from pg_inherits
+            where inhparent = 'urldependencies'::regclass
+            order by inhrelid""";
+    // Click stats go with the link, so a re-created alias starts from zero and dead links leave the warm-up top-N.
+    private static final String DELETE_EXPIRED = """
+            with expired as (
+                delete from %1$s
+                where alias in (select alias from %1$s
+                                where expiration_time < ?
+                                order by expiration_time
+                                limit ?
+                                for update skip locked)
+                returning alias),
+            stats as (
+                delete from url_click_stats
+                where alias in (select alias from expired))
+            select alias from expired""";
+    private static final String ESTIMATED_COUNT = """
+            select coalesce(sum(greatest(reltuples, 0)), 0)::bigint
+            from pg_class
+            where oid = 'urldependencies'::regclass
+               or oid in (select inhrelid from pg_inherits where inhparent = 'urldependencies'::regclass)""";
+    private static final String TABLE = "urldependencies";
+    private static final String SELECT_ALIASES_CREATED_AFTER = "select created_at, alias from urldependencies where created_at > ?";
+    private static final String SELECT_TARGETS_CREATED_AFTER = """
+            select created_at, alias, original_url, expiration_time, redirect_type
+            from urldependencies
+            where created_at > ?""";
+    private static final int ALIAS_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate readJdbcTemplate;
+    private final int batchSize;
+
+    public URLJdbcRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                 @Qualifier("replicaJdbcTemplate") ObjectProvider<JdbcTemplate> replicaJdbcTemplate,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readJdbcTemplate = replicaJdbcTemplate.getIfAvailable(() -> jdbcTemplate);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Optional<UrlTarget> findTargetByAlias(String alias) {
+        Optional<UrlTarget> target = findTargetByAlias(readJdbcTemplate, alias);
+        if (target.isEmpty() && readJdbcTemplate != jdbcTemplate)
+            target = findTargetByAlias(jdbcTemplate, alias);
+        return target;
+    }
+
+    @Override
+    public boolean[] insertAllIfAliasAbsent(List<UrlDependencies> urls) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_ALIAS_ABSENT, urls, batchSize, (statement, url) -> {
+            statement.setString(1, url.getOriginalUrl());
+            statement.setString(2, url.getAlias());
+            statement.setString(3, url.getShortenedUrl());
+            statement.setTimestamp(4, url.getExpirationTime() != null ? Timestamp.valueOf(url.getExpirationTime()) : null);
+            statement.setString(5, url.getRedirectType() != null ? url.getRedirectType().name() : null);
+            statement.setObject(6, url.getOriginalUrlHash(), Types.BIGINT);
+        });
+
+        boolean[] inserted = new boolean[urls.size()];
+        int index = 0;
+        for (int[] batch : counts)
+            for (int count : batch)
+                inserted[index++] = count != 0;
+        return inserted;
+    }
+
+    /**
+     * Links stored with the given {@code original_url_hash}. The table is partitioned by alias, so this
+     * probes the hash index of every partition; the replica is enough, a lagging one only misses a duplicate.
+     */
+    @Override
+    public List<UrlDependencies> findByOriginalUrlHash(long originalUrlHash) {
+        return readJdbcTemplate.query(SELECT_BY_ORIGINAL_URL_HASH, (resultSet, rowNum) -> UrlDependencies.builder()
+                .alias(resultSet.getString(1))
+                .originalUrl(resultSet.getString(2))
+                .shortenedUrl(resultSet.getString(3))
+                .expirationTime(resultSet.getObject(4, LocalDateTime.class))
+                .redirectType(RedirectType.fromName(resultSet.getString(5)))
+                .originalUrlHash(originalUrlHash)
+                .build(), originalUrlHash);
+    }
+
+    /**
+     * Hash partitions of the table, or the table itself when it is not partitioned.
+     */
+    @Override
+    public List<String> partitions() {
+        List<String> partitions = jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class);
+        return partitions.isEmpty() ? List.of(TABLE) : partitions;
+    }
+
+    /**
+     * Deletes from a single partition, which keeps each statement on one small expiration index and
+     * lets autovacuum clean up partitions independently. {@code partition} must come from
+     * {@link #partitions()}.
+     */
+    @Override
+    public List<String> deleteExpired(String partition, LocalDateTime moment, int limit) {
+        return jdbcTemplate.queryForList(DELETE_EXPIRED.formatted(partition), String.class, Timestamp.valueOf(moment), limit);
+    }
+
+    @Override
+    public long estimatedCount() {
+        Long count = jdbcTemplate.queryForObject(ESTIMATED_COUNT, Long.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public Instant forEachAliasCreatedAfter(Instant createdAfter, Consumer<String> consumer) {
+        Instant[] maxCreatedAt = {createdAfter};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALIASES_CREATED_AFTER);
+            statement.setFetchSize(ALIAS_FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.from(createdAfter));
+            return statement;
+        }, resultSet -> {
+            maxCreatedAt[0] = max(maxCreatedAt[0], resultSet.getTimestamp(1).toInstant());
+            consumer.accept(resultSet.getString(2));
+        });
+        return maxCreatedAt[0];
+    }
+
+    @Override
+    public Instant forEachTargetCreatedAfter(Instant createdAfter, BiConsumer<String, UrlTarget> consumer) {
+        Instant[] maxCreatedAt = {createdAfter};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_TARGETS_CREATED_AFTER);
+            statement.setFetchSize(ALIAS_FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.from(createdAfter));
+            return statement;
+        }, resultSet -> {
+            maxCreatedAt[0] = max(maxCreatedAt[0], resultSet.getTimestamp(1).toInstant());
+            consumer.accept(resultSet.getString(2), new UrlTarget(resultSet.getString(3),
+                    resultSet.getObject(4, LocalDateTime.class), RedirectType.fromName(resultSet.getString(5))));
+        });
+        return maxCreatedAt[0];
+    }
+
+    private static Instant max(Instant first, Instant second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static Optional<UrlTarget> findTargetByAlias(JdbcTemplate template, String alias) {
+        return template.query(SELECT_TARGET, resultSet -> resultSet.next()
+                ? Optional.of(new UrlTarget(resultSet.getString(1), resultSet.getObject(2, LocalDateTime.class),
+                        RedirectType.fromName(resultSet.getString(3))))
+                : Optional.empty(), alias);
+    }
+}
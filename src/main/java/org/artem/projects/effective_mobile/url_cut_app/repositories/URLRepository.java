@@ -2,12 +2,30 @@ package org.artem.projects.effective_mobile.url_cut_app.repositories;
 
 import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
-public interface URLRepository extends JpaRepository<UrlDependencies, Long> {
+public interface URLRepository extends JpaRepository<UrlDependencies, Long>, URLJdbcRepository {
     Optional<UrlDependencies> findByAlias(String alias);
     Boolean existsByAlias(String alias);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into urldependencies (original_url, alias, shortened_url, expiration_time, redirect_type, original_url_hash)
+            values (:originalUrl, :alias, :shortenedUrl, :expirationTime, :redirectType, :originalUrlHash)
+            on conflict do nothing""", nativeQuery = true)
+    int insertIfAliasAbsent(@Param("originalUrl") String originalUrl,
+                            @Param("alias") String alias,
+                            @Param("shortenedUrl") String shortenedUrl,
+                            @Param("expirationTime") LocalDateTime expirationTime,
+                            @Param("redirectType") String redirectType,
+                            @Param("originalUrlHash") Long originalUrlHash);
 }
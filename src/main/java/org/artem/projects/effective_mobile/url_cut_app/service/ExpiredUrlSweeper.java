@@ -0,0 +1,99 @@
+package org.artem.projects.effective_mobile.url_cut_app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.artem.projects.effective_mobile.url_cut_app.cache.Invalidation;
+import org.artem.projects.effective_mobile.url_cut_app.cache.InvalidationBus;
+import org.artem.projects.effective_mobile.url_cut_app.cache.UrlCache;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "service.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class ExpiredUrlSweeper {
+    private final URLRepository urlRepository;
+    private final UrlCache urlCache;
+    private final InvalidationBus invalidationBus;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Duration pauseBetweenChunks;
+    private final Counter deletedCounter;
+    private final Timer runTimer;
+    private int nextPartition;
+
+    public ExpiredUrlSweeper(URLRepository urlRepository,
+                             UrlCache urlCache,
+                             InvalidationBus invalidationBus,
+                             MeterRegistry meterRegistry,
+                             @Value("${service.sweeper.chunk-size:1000}") int chunkSize,
+                             @Value("${service.sweeper.max-chunks-per-run:100}") int maxChunksPerRun,
+                             @Value("${service.sweeper.pause-between-chunks:100ms}") Duration pauseBetweenChunks) {
+        this.urlRepository = urlRepository;
+        this.urlCache = urlCache;
+        this.invalidationBus = invalidationBus;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseBetweenChunks = pauseBetweenChunks;
+        this.deletedCounter = Counter.builder("urls.sweeper.deleted")
+                .description("Expired links removed by the sweeper")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("urls.sweeper.run")
+                .description("Duration of a sweeper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${service.sweeper.interval:PT1M}",
+            initialDelayString = "${service.sweeper.initial-delay:PT30S}")
+    public void sweep() {
+        runTimer.record(this::sweepExpired);
+    }
+
+    /**
+     * Sweeps partitions one at a time until each returns a short chunk or {@code max-chunks-per-run}
+     * is spent; the next run resumes at the partition where the budget ran out.
+     */
+    int sweepExpired() {
+        List<String> partitions = urlRepository.partitions();
+        int total = 0;
+        int sweptPartitions = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun && sweptPartitions < partitions.size(); chunk++) {
+            String partition = partitions.get(nextPartition % partitions.size());
+            List<String> aliases = urlRepository.deleteExpired(partition, LocalDateTime.now(), chunkSize);
+            aliases.forEach(urlCache::invalidate);
+            if (!aliases.isEmpty())
+                invalidationBus.publish(Invalidation.removed(aliases));
+            deletedCounter.increment(aliases.size());
+            total += aliases.size();
+
+            if (aliases.size() < chunkSize) {
+                nextPartition = (nextPartition + 1) % partitions.size();
+                sweptPartitions++;
+            } else if (!pause()) {
+                break;
+            }
+        }
+        if (total > 0)
+            log.info("Removed {} expired links", total);
+        return total;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenChunks.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package org.artem.projects.effective_mobile.url_cut_app.service;
 
+import org.artem.projects.effective_mobile.url_cut_app.dto.ClickStatsResponse;
 import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.dto.RedirectResolution;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ShortenResult;
+
+import java.util.List;
 
 public interface URLService {
     String shorten(CreatingShortedUrlRequest url);
-    String getOriginalUrlByAlias(String url);
+    List<ShortenResult> shortenAll(List<CreatingShortedUrlRequest> urls);
+    RedirectResolution resolveAlias(String alias);
+    ClickStatsResponse getClickStats(String alias);
 }
@@ -1,18 +1,28 @@
 package org.artem.projects.effective_mobile.url_cut_app.service;
 
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.RandomStringUtils;
+import org.artem.projects.effective_mobile.url_cut_app.alias.AliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.cache.AliasFilter;
+import org.artem.projects.effective_mobile.url_cut_app.dedup.UrlDeduplicator;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ClickStatsResponse;
 import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.dto.RedirectResolution;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ShortenResult;
 import org.artem.projects.effective_mobile.url_cut_app.exceptions.AliasAlreadyUsedException;
 import org.artem.projects.effective_mobile.url_cut_app.exceptions.ShortedUrlNotFoundException;
-import org.artem.projects.effective_mobile.url_cut_app.exceptions.UrlTimeExpiredLivenessException;
+import org.artem.projects.effective_mobile.url_cut_app.journal.WriteBehindQueue;
+import org.artem.projects.effective_mobile.url_cut_app.metrics.UrlServiceMetrics;
 import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.ClickStatsRepository;
 import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -21,49 +31,197 @@ public class URLServiceImpl implements URLService {
     private String domainUrl;
 
     private final URLRepository urlRepository;
+    private final UrlTiers urlTiers;
+    private final AliasGenerator aliasGenerator;
+    private final ClickStatsRepository clickStatsRepository;
+    private final UrlServiceMetrics urlServiceMetrics;
+    private final AliasFilter aliasFilter;
+    private final WriteBehindQueue writeBehindQueue;
+    private final UrlDeduplicator urlDeduplicator;
 
-    @Transactional
     @Override
     public String shorten(CreatingShortedUrlRequest urlRequest) {
+        return urlServiceMetrics.timeShorten(() -> {
+            UrlDependencies existing = urlDeduplicator.find(urlRequest);
+            if (existing != null)
+                return existing.getShortenedUrl();
+
+            String shortenedUrl = urlRequest.alias() == null && aliasGenerator.isUnique() && writeBehindQueue.isAccepting()
+                    ? submit(urlRequest)
+                    : null;
+            return shortenedUrl != null ? shortenedUrl : insert(urlRequest);
+        });
+    }
+
+    /**
+     * Hands a link with a generated alias to the write-behind queue when the alias filter rules out an
+     * existing row, otherwise returns {@code null} so the caller inserts it synchronously. Custom
+     * aliases never take this path: only the insert can tell whether another instance took one.
+     */
+    private String submit(CreatingShortedUrlRequest urlRequest) {
+        while (true) {
+            String alias = aliasGenerator.nextAlias();
+            if (aliasFilter.mightContain(alias))
+                return null;
+
+            UrlDependencies url = toUrlDependencies(urlRequest, alias);
+            if (writeBehindQueue.submit(url)) {
+                urlTiers.journaled(url);
+                return url.getShortenedUrl();
+            }
+            urlServiceMetrics.aliasCollision();
+        }
+    }
+
+    private String insert(CreatingShortedUrlRequest urlRequest) {
+        LocalDateTime timestamp = urlRequest.expirationTime();
+        String redirectType = urlRequest.redirectType() != null ? urlRequest.redirectType().name() : null;
+        Long originalUrlHash = urlDeduplicator.hash(urlRequest.url());
+
+        String alias;
         String shortenedUrl;
-        String randomAlias = null;
         if (urlRequest.alias() != null) {
-            if (urlRepository.existsByAlias(urlRequest.alias()))
-                throw new AliasAlreadyUsedException("Alias '" + urlRequest.alias() + "' is already used");
-
-            shortenedUrl = "http://" + domainUrl + "/" + urlRequest.alias();
+            alias = urlRequest.alias();
+            if (urlTiers.isReserved(alias))
+                throw new AliasAlreadyUsedException(reservedAliasMessage(alias));
+            shortenedUrl = shortenedUrl(alias);
+            if (writeBehindQueue.isPending(alias)
+                    || urlRepository.insertIfAliasAbsent(urlRequest.url(), alias, shortenedUrl, timestamp, redirectType, originalUrlHash) == 0)
+                throw new AliasAlreadyUsedException(aliasAlreadyUsedMessage(alias));
         } else {
-            do randomAlias = RandomStringUtils.random(50, true, true);
-            while (urlRepository.existsByAlias(randomAlias));
-
-            shortenedUrl = "http://" + domainUrl + "/" + randomAlias;
+            alias = aliasGenerator.nextAlias();
+            shortenedUrl = shortenedUrl(alias);
+            while (writeBehindQueue.isPending(alias)
+                    || urlRepository.insertIfAliasAbsent(urlRequest.url(), alias, shortenedUrl, timestamp, redirectType, originalUrlHash) == 0) {
+                urlServiceMetrics.aliasCollision();
+                alias = aliasGenerator.nextAlias();
+                shortenedUrl = shortenedUrl(alias);
+            }
         }
 
-        LocalDateTime timestamp =
-                urlRequest.expiredAfter() != null ? LocalDateTime.now().plusSeconds(urlRequest.expiredAfter().getSecond()) : null;
-        UrlDependencies urlDependencies = UrlDependencies.builder()
+        urlTiers.created(UrlDependencies.builder()
                 .originalUrl(urlRequest.url())
-                .alias(randomAlias == null ? urlRequest.alias() : randomAlias)
+                .alias(alias)
                 .shortenedUrl(shortenedUrl)
                 .expirationTime(timestamp)
-                .build();
-
-        urlRepository.save(urlDependencies);
+                .redirectType(urlRequest.redirectType())
+                .originalUrlHash(originalUrlHash)
+                .build());
         return shortenedUrl;
     }
 
     @Transactional
     @Override
-    public String getOriginalUrlByAlias(String alias) {
-        UrlDependencies urlDependencies = urlRepository.findByAlias(alias)
-                .orElseThrow(() -> new ShortedUrlNotFoundException("Url '" + "http://" + domainUrl + "/" + alias + "' not found"));
-
-        if (urlDependencies.getExpirationTime() != null) {
-            if (urlDependencies.getExpirationTime().isBefore(LocalDateTime.now())) {
-                urlRepository.delete(urlDependencies);
-                throw new UrlTimeExpiredLivenessException("Url '" + "http://" + domainUrl + "/" + alias + "' expired");
+    public List<ShortenResult> shortenAll(List<CreatingShortedUrlRequest> urlRequests) {
+        ShortenResult[] results = new ShortenResult[urlRequests.size()];
+        List<Integer> positions = new ArrayList<>(urlRequests.size());
+        List<UrlDependencies> rows = new ArrayList<>(urlRequests.size());
+        for (int i = 0; i < urlRequests.size(); i++) {
+            CreatingShortedUrlRequest urlRequest = urlRequests.get(i);
+            if (urlRequest.url() == null) {
+                results[i] = ShortenResult.failure(null, "Url must not be empty");
+                continue;
+            }
+            if (urlRequest.alias() != null && urlTiers.isReserved(urlRequest.alias())) {
+                results[i] = ShortenResult.failure(urlRequest.url(), reservedAliasMessage(urlRequest.alias()));
+                continue;
+            }
+            if (urlRequest.alias() != null && writeBehindQueue.isPending(urlRequest.alias())) {
+                results[i] = ShortenResult.failure(urlRequest.url(), aliasAlreadyUsedMessage(urlRequest.alias()));
+                continue;
             }
+            positions.add(i);
+            rows.add(toUrlDependencies(urlRequest,
+                    urlRequest.alias() != null ? urlRequest.alias() : aliasGenerator.nextAlias()));
         }
-        return urlDependencies.getOriginalUrl();
+
+        List<String> created = new ArrayList<>(urlRequests.size());
+        while (!rows.isEmpty()) {
+            boolean[] inserted = urlRepository.insertAllIfAliasAbsent(rows);
+            List<Integer> retryPositions = new ArrayList<>();
+            List<UrlDependencies> retryRows = new ArrayList<>();
+            for (int i = 0; i < inserted.length; i++) {
+                int position = positions.get(i);
+                UrlDependencies row = rows.get(i);
+                CreatingShortedUrlRequest urlRequest = urlRequests.get(position);
+                if (inserted[i]) {
+                    created.add(row.getAlias());
+                    results[position] = ShortenResult.success(row.getOriginalUrl(), row.getShortenedUrl());
+                } else if (urlRequest.alias() != null) {
+                    results[position] = ShortenResult.failure(row.getOriginalUrl(), aliasAlreadyUsedMessage(row.getAlias()));
+                } else {
+                    urlServiceMetrics.aliasCollision();
+                    retryPositions.add(position);
+                    retryRows.add(toUrlDependencies(urlRequest, aliasGenerator.nextAlias()));
+                }
+            }
+            positions = retryPositions;
+            rows = retryRows;
+        }
+        if (!created.isEmpty())
+            urlTiers.createdAll(created);
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public RedirectResolution resolveAlias(String alias) {
+        long startTime = System.nanoTime();
+        RedirectResolution resolution = null;
+        try {
+            resolution = resolve(alias);
+            return resolution;
+        } finally {
+            urlServiceMetrics.recordRedirect(resolution, startTime);
+        }
+    }
+
+    private RedirectResolution resolve(String alias) {
+        RedirectResolution local = urlTiers.resolveLocal(alias);
+        if (local != null)
+            return local;
+
+        RedirectResolution shared = urlTiers.resolveShared(alias);
+        if (shared != null)
+            return shared;
+
+        return urlTiers.resolveStored(alias, urlRepository.findTargetByAlias(alias).orElse(null));
+    }
+
+    @Override
+    public ClickStatsResponse getClickStats(String alias) {
+        return clickStatsRepository.findById(alias)
+                .map(stats -> new ClickStatsResponse(alias, stats.getClicks(), stats.getLastAccessTime()))
+                .orElseGet(() -> {
+                    if (!urlRepository.existsByAlias(alias))
+                        throw new ShortedUrlNotFoundException(notFoundMessage(alias));
+                    return new ClickStatsResponse(alias, 0, null);
+                });
+    }
+
+    private UrlDependencies toUrlDependencies(CreatingShortedUrlRequest urlRequest, String alias) {
+        return UrlDependencies.builder()
+                .originalUrl(urlRequest.url())
+                .alias(alias)
+                .shortenedUrl(shortenedUrl(alias))
+                .expirationTime(urlRequest.expirationTime())
+                .redirectType(urlRequest.redirectType())
+                .originalUrlHash(urlDeduplicator.hash(urlRequest.url()))
+                .build();
+    }
+
+    private String shortenedUrl(String alias) {
+        return "http://" + domainUrl + "/" + alias;
+    }
+
+    private String notFoundMessage(String alias) {
+        return "Url '" + shortenedUrl(alias) + "' not found";
+    }
+
+    private static String aliasAlreadyUsedMessage(String alias) {
+        return "Alias '" + alias + "' is already used";
+    }
+
+    private static String reservedAliasMessage(String alias) {
+        return "Alias '" + alias + "' is reserved for generated links";
     }
 }
@@ -0,0 +1,124 @@
+package org.artem.projects.effective_mobile.url_cut_app.service;
+
+import lombok.RequiredArgsConstructor;
+import org.artem.projects.effective_mobile.url_cut_app.alias.AliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.analytics.ClickEventBuffer;
+import org.artem.projects.effective_mobile.url_cut_app.cache.AliasFilter;
+import org.artem.projects.effective_mobile.url_cut_app.cache.Invalidation;
+import org.artem.projects.effective_mobile.url_cut_app.cache.InvalidationBus;
+import org.artem.projects.effective_mobile.url_cut_app.cache.UrlCache;
+import org.artem.projects.effective_mobile.url_cut_app.dedup.UrlDeduplicator;
+import org.artem.projects.effective_mobile.url_cut_app.dto.RedirectResolution;
+import org.artem.projects.effective_mobile.url_cut_app.journal.WriteBehindQueue;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.snapshot.UrlSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The node-local tiers in front of the links table, shared by the blocking and the reactive service
+ * so that only the database call differs between them. A redirect is looked up in the cache, the
+ * snapshot and the write-behind queue, then ruled out by the alias filter or looked up in the shared
+ * cache; whatever is left goes to the database and back through {@link #resolveStored}. A link
+ * inserted by either service is announced through {@link #created}.
+ */
+@Component
+@RequiredArgsConstructor
+public class UrlTiers {
+    private final UrlCache urlCache;
+    private final UrlSnapshot urlSnapshot;
+    private final WriteBehindQueue writeBehindQueue;
+    private final AliasFilter aliasFilter;
+    private final ClickEventBuffer clickEventBuffer;
+    private final InvalidationBus invalidationBus;
+    private final UrlDeduplicator urlDeduplicator;
+    private final AliasGenerator aliasGenerator;
+
+    /**
+     * Answers from memory, or returns {@code null} when the shared cache and the database must be asked.
+     */
+    public RedirectResolution resolveLocal(String alias) {
+        UrlTarget cached = urlCache.get(alias);
+        if (cached != null && !cached.isExpiredAt(LocalDateTime.now()))
+            return found(alias, cached);
+
+        UrlTarget snapshotted = urlSnapshot.find(alias);
+        if (snapshotted != null)
+            return found(alias, snapshotted);
+
+        UrlTarget pending = writeBehindQueue.find(alias);
+        if (pending != null)
+            return pending.isExpiredAt(LocalDateTime.now()) ? RedirectResolution.EXPIRED : found(alias, pending);
+
+        return aliasFilter.mightContain(alias) ? null : RedirectResolution.NOT_FOUND;
+    }
+
+    public boolean hasSharedTier() {
+        return urlCache.hasSharedTier();
+    }
+
+    /**
+     * Blocking lookup in the shared cache; returns {@code null} on a miss.
+     */
+    public RedirectResolution resolveShared(String alias) {
+        UrlTarget shared = urlCache.getShared(alias);
+        return shared != null && !shared.isExpiredAt(LocalDateTime.now()) ? found(alias, shared) : null;
+    }
+
+    /**
+     * Turns the database answer, {@code null} when there is no row, into a resolution and caches a live target.
+     */
+    public RedirectResolution resolveStored(String alias, UrlTarget target) {
+        if (target == null)
+            return RedirectResolution.NOT_FOUND;
+        if (target.isExpiredAt(LocalDateTime.now()))
+            return RedirectResolution.EXPIRED;
+
+        urlCache.put(alias, target);
+        return found(alias, target);
+    }
+
+    /**
+     * Whether a custom alias must be refused because a journaled link may hold it, see
+     * {@link AliasGenerator#canGenerate(String)}.
+     */
+    public boolean isReserved(String alias) {
+        return writeBehindQueue.isEnabled() && aliasGenerator.canGenerate(alias);
+    }
+
+    public void created(UrlDependencies url) {
+        urlCache.invalidate(url.getAlias());
+        aliasFilter.add(url.getAlias());
+        invalidationBus.publish(Invalidation.created(List.of(url.getAlias())));
+        urlDeduplicator.remember(url);
+    }
+
+    /**
+     * Announces links inserted in bulk; they are not remembered for deduplication, since the
+     * surrounding transaction may still roll back.
+     */
+    public void createdAll(List<String> aliases) {
+        for (String alias : aliases) {
+            urlCache.invalidate(alias);
+            aliasFilter.add(alias);
+        }
+        invalidationBus.publish(Invalidation.created(aliases));
+    }
+
+    /**
+     * Announces a link handed to the write-behind queue, which publishes it and adds it to the
+     * alias filter itself.
+     */
+    public void journaled(UrlDependencies url) {
+        urlCache.invalidate(url.getAlias());
+        urlDeduplicator.remember(url);
+    }
+
+    private RedirectResolution found(String alias, UrlTarget target) {
+        clickEventBuffer.record(alias);
+        return RedirectResolution.found(target);
+    }
+}
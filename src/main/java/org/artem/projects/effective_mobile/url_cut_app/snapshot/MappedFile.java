@@ -0,0 +1,74 @@
+package org.artem.projects.effective_mobile.url_cut_app.snapshot;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Long-addressed view of a file mapped in fixed-size segments, since a single mapping is limited to
+ * 2 GB. Callers lay values out so that none of them straddles a segment boundary.
+ */
+final class MappedFile {
+    private final MappedByteBuffer[] segments;
+    private final int segmentShift;
+    private final int segmentMask;
+
+    private MappedFile(MappedByteBuffer[] segments, int segmentSize) {
+        this.segments = segments;
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        this.segmentMask = segmentSize - 1;
+    }
+
+    static MappedFile map(FileChannel channel, FileChannel.MapMode mode, long size, int segmentSize) throws IOException {
+        if (Integer.bitCount(segmentSize) != 1)
+            throw new IllegalArgumentException("Segment size must be a power of two: " + segmentSize);
+
+        MappedByteBuffer[] segments = new MappedByteBuffer[Math.toIntExact((size + segmentSize - 1) / segmentSize)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i * segmentSize;
+            segments[i] = channel.map(mode, start, Math.min(segmentSize, size - start));
+        }
+        return new MappedFile(segments, segmentSize);
+    }
+
+    byte get(long position) {
+        return segment(position).get(offset(position));
+    }
+
+    int getUnsignedShort(long position) {
+        return segment(position).getShort(offset(position)) & 0xFFFF;
+    }
+
+    int getInt(long position) {
+        return segment(position).getInt(offset(position));
+    }
+
+    long getLong(long position) {
+        return segment(position).getLong(offset(position));
+    }
+
+    void get(long position, byte[] destination, int length) {
+        segment(position).get(offset(position), destination, 0, length);
+    }
+
+    void putInt(long position, int value) {
+        segment(position).putInt(offset(position), value);
+    }
+
+    void putLong(long position, long value) {
+        segment(position).putLong(offset(position), value);
+    }
+
+    void force() {
+        for (MappedByteBuffer segment : segments)
+            segment.force();
+    }
+
+    private MappedByteBuffer segment(long position) {
+        return segments[(int) (position >>> segmentShift)];
+    }
+
+    private int offset(long position) {
+        return (int) position & segmentMask;
+    }
+}
@@ -0,0 +1,131 @@
+package org.artem.projects.effective_mobile.url_cut_app.snapshot;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static org.artem.projects.effective_mobile.url_cut_app.snapshot.SnapshotFormat.*;
+
+/**
+ * Read-only, memory-mapped snapshot written by {@link SnapshotWriter}. Lookups hash the alias once
+ * and probe the index in the mapping; only the returned {@link UrlTarget} is allocated.
+ */
+public final class SnapshotFile {
+    private static final RedirectType[] REDIRECT_TYPES = RedirectType.values();
+
+    private final MappedFile file;
+    private final long size;
+    private final int segmentSize;
+    private final long createdUntil;
+    private final long entries;
+    private final long dataEnd;
+    private final long indexOffset;
+    private final long slotMask;
+    private final long fullBuildTime;
+
+    private SnapshotFile(MappedFile file, long size, int segmentSize) {
+        this.file = file;
+        this.size = size;
+        this.segmentSize = segmentSize;
+        this.createdUntil = file.getLong(CREATED_UNTIL_POSITION);
+        this.entries = file.getLong(ENTRIES_POSITION);
+        this.dataEnd = file.getLong(DATA_END_POSITION);
+        this.indexOffset = file.getLong(INDEX_OFFSET_POSITION);
+        this.slotMask = file.getLong(SLOT_COUNT_POSITION) - 1;
+        this.fullBuildTime = file.getLong(FULL_BUILD_TIME_POSITION);
+    }
+
+    public static SnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+                throw new IOException("Not a supported url snapshot: " + path);
+
+            int segmentSize = header.getInt(SEGMENT_SIZE_POSITION);
+            long expectedSize = header.getLong(INDEX_OFFSET_POSITION) + header.getLong(SLOT_COUNT_POSITION) * 8;
+            if (size != expectedSize)
+                throw new IOException("Url snapshot " + path + " is " + size + " bytes, expected " + expectedSize);
+            return new SnapshotFile(MappedFile.map(channel, FileChannel.MapMode.READ_ONLY, size, segmentSize), size, segmentSize);
+        }
+    }
+
+    public UrlTarget find(String alias) {
+        byte[] key = alias.getBytes(StandardCharsets.UTF_8);
+        long record = locate(key);
+        return record >= 0 ? readTarget(record, key.length) : null;
+    }
+
+    public boolean contains(String alias) {
+        return locate(alias.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    public long entries() {
+        return entries;
+    }
+
+    public long createdUntil() {
+        return createdUntil;
+    }
+
+    public long fullBuildTime() {
+        return fullBuildTime;
+    }
+
+    public long sizeInBytes() {
+        return size;
+    }
+
+    /**
+     * Copies the raw bytes of records that have not expired at {@code moment}, without decoding them.
+     */
+    void copyLiveRecords(SnapshotWriter writer, LocalDateTime moment) {
+        long momentMicros = encodeExpiration(moment);
+        for (long record = nextRecord(file, HEADER_SIZE, dataEnd, segmentSize); record < dataEnd;
+             record = nextRecord(file, record + recordSize(file, record), dataEnd, segmentSize)) {
+            long expiration = file.getLong(expirationPosition(file, record));
+            if (expiration == NO_EXPIRATION || expiration >= momentMicros)
+                writer.addRecord(file, record, recordSize(file, record));
+        }
+    }
+
+    private long locate(byte[] key) {
+        long hash = hash(key);
+        long tag = tag(hash);
+        for (long slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            long entry = file.getLong(indexOffset + slot * 8);
+            if (entry == 0)
+                return -1;
+            if ((entry & ~OFFSET_MASK) == tag && aliasEquals(entry & OFFSET_MASK, key))
+                return entry & OFFSET_MASK;
+        }
+    }
+
+    private boolean aliasEquals(long record, byte[] key) {
+        if (file.getUnsignedShort(record) != key.length)
+            return false;
+        for (int i = 0; i < key.length; i++)
+            if (file.get(record + 2 + i) != key[i])
+                return false;
+        return true;
+    }
+
+    private UrlTarget readTarget(long record, int aliasLength) {
+        long urlPosition = record + 2 + aliasLength;
+        byte[] url = new byte[file.getInt(urlPosition)];
+        file.get(urlPosition + 4, url, url.length);
+        long expirationPosition = urlPosition + 4 + url.length;
+        byte redirectType = file.get(expirationPosition + 8);
+        return new UrlTarget(new String(url, StandardCharsets.UTF_8),
+                decodeExpiration(file.getLong(expirationPosition)),
+                redirectType >= 0 ? REDIRECT_TYPES[redirectType] : null);
+    }
+}
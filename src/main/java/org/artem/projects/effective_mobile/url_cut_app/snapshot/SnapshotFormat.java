@@ -0,0 +1,108 @@
+package org.artem.projects.effective_mobile.url_cut_app.snapshot;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Layout of a snapshot file: a 64-byte header, then records, then an open-addressing index.
+ * <pre>
+ * header  magic:int version:int segmentSize:int 0:int createdUntil:long entries:long
+ *         dataEnd:long indexOffset:long slotCount:long fullBuildTime:long
+ * record  aliasLength:u16 alias:utf8 urlLength:int url:utf8 expirationMicros:long redirectType:byte
+ * slot    tag:16 recordOffset:48, 0 when empty
+ * </pre>
+ * {@code createdUntil} (the newest {@code created_at} copied from the table) and {@code fullBuildTime}
+ * are epoch milliseconds. Records never straddle a segment: the rest of a segment that cannot fit the next record is
+ * zero-filled, and a zero alias length (or less room than the smallest record) marks such padding.
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x55524C53;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+    static final int MIN_RECORD_SIZE = 2 + 1 + 4 + 8 + 1;
+    static final long NO_EXPIRATION = Long.MIN_VALUE;
+    static final long OFFSET_MASK = (1L << 48) - 1;
+
+    static final int SEGMENT_SIZE_POSITION = 8;
+    static final int CREATED_UNTIL_POSITION = 16;
+    static final int ENTRIES_POSITION = 24;
+    static final int DATA_END_POSITION = 32;
+    static final int INDEX_OFFSET_POSITION = 40;
+    static final int SLOT_COUNT_POSITION = 48;
+    static final int FULL_BUILD_TIME_POSITION = 56;
+
+    private SnapshotFormat() {
+    }
+
+    static int recordSize(int aliasLength, int urlLength) {
+        return 2 + aliasLength + 4 + urlLength + 8 + 1;
+    }
+
+    static int recordSize(MappedFile file, long position) {
+        int aliasLength = file.getUnsignedShort(position);
+        return recordSize(aliasLength, file.getInt(position + 2 + aliasLength));
+    }
+
+    static long expirationPosition(MappedFile file, long position) {
+        int aliasLength = file.getUnsignedShort(position);
+        return position + 2 + aliasLength + 4 + file.getInt(position + 2 + aliasLength);
+    }
+
+    /**
+     * Position of the first record at or after {@code position}, skipping segment padding.
+     */
+    static long nextRecord(MappedFile file, long position, long dataEnd, int segmentSize) {
+        while (position < dataEnd) {
+            long remaining = segmentSize - (position & (segmentSize - 1));
+            if (remaining >= MIN_RECORD_SIZE && file.getUnsignedShort(position) != 0)
+                return position;
+            position += remaining;
+        }
+        return dataEnd;
+    }
+
+    static long slotCount(long entries) {
+        return Math.max(16, Long.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+    }
+
+    static long encodeExpiration(LocalDateTime expirationTime) {
+        if (expirationTime == null)
+            return NO_EXPIRATION;
+        return expirationTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + expirationTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime decodeExpiration(long micros) {
+        if (micros == NO_EXPIRATION)
+            return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key)
+            hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+        return mix(hash);
+    }
+
+    static long hash(MappedFile file, long position, int length) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++)
+            hash = (hash ^ (file.get(position + i) & 0xFF)) * 0x100000001b3L;
+        return mix(hash);
+    }
+
+    static long tag(long hash) {
+        return (hash >>> 48) << 48;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,161 @@
+package org.artem.projects.effective_mobile.url_cut_app.snapshot;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static org.artem.projects.effective_mobile.url_cut_app.snapshot.SnapshotFormat.*;
+
+/**
+ * Streams records into {@code <target>.tmp}, then builds the index in place through a mapping and
+ * atomically moves the file over {@code target}, so readers only ever see complete files. Heap use
+ * does not grow with the number of records.
+ */
+public class SnapshotWriter implements Closeable {
+    private final Path target;
+    private final Path temporary;
+    private final int segmentSize;
+    private final DataOutputStream output;
+    private long position = HEADER_SIZE;
+    private long records;
+    private byte[] copyBuffer = new byte[256];
+    private boolean finished;
+
+    public SnapshotWriter(Path target) throws IOException {
+        this(target, DEFAULT_SEGMENT_SIZE);
+    }
+
+    SnapshotWriter(Path target, int segmentSize) throws IOException {
+        if (Integer.bitCount(segmentSize) != 1 || segmentSize < 4096)
+            throw new IllegalArgumentException("Segment size must be a power of two of at least 4096: " + segmentSize);
+
+        this.target = target;
+        this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        this.segmentSize = segmentSize;
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16));
+        output.write(new byte[HEADER_SIZE]);
+    }
+
+    public void add(String alias, UrlTarget urlTarget) {
+        byte[] aliasBytes = alias.getBytes(StandardCharsets.UTF_8);
+        byte[] urlBytes = urlTarget.originalUrl().getBytes(StandardCharsets.UTF_8);
+        if (aliasBytes.length == 0 || aliasBytes.length > 0xFFFF)
+            throw new IllegalArgumentException("Alias of " + aliasBytes.length + " bytes cannot be stored");
+
+        try {
+            startRecord(recordSize(aliasBytes.length, urlBytes.length));
+            output.writeShort(aliasBytes.length);
+            output.write(aliasBytes);
+            output.writeInt(urlBytes.length);
+            output.write(urlBytes);
+            output.writeLong(encodeExpiration(urlTarget.expirationTime()));
+            output.writeByte(urlTarget.redirectType() != null ? urlTarget.redirectType().ordinal() : -1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void addRecord(MappedFile source, long sourcePosition, int size) {
+        if (copyBuffer.length < size)
+            copyBuffer = new byte[Math.max(size, copyBuffer.length * 2)];
+        source.get(sourcePosition, copyBuffer, size);
+        try {
+            startRecord(size);
+            output.write(copyBuffer, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Indexes the written records, keeping the first of any duplicate aliases, and replaces
+     * {@code target} with the finished file.
+     */
+    public void finish(long createdUntil, long fullBuildTime) throws IOException {
+        output.close();
+        long dataEnd = position;
+        long slotCount = slotCount(records);
+        long indexOffset = (dataEnd + 7) & ~7L;
+        long entries = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedFile file = MappedFile.map(channel, FileChannel.MapMode.READ_WRITE, indexOffset + slotCount * 8, segmentSize);
+            for (long slot = 0; slot < slotCount; slot++)
+                file.putLong(indexOffset + slot * 8, 0);
+
+            for (long record = nextRecord(file, HEADER_SIZE, dataEnd, segmentSize); record < dataEnd;
+                 record = nextRecord(file, record + recordSize(file, record), dataEnd, segmentSize)) {
+                if (index(file, indexOffset, slotCount - 1, record))
+                    entries++;
+            }
+
+            file.putInt(0, MAGIC);
+            file.putInt(4, VERSION);
+            file.putInt(SEGMENT_SIZE_POSITION, segmentSize);
+            file.putLong(CREATED_UNTIL_POSITION, createdUntil);
+            file.putLong(ENTRIES_POSITION, entries);
+            file.putLong(DATA_END_POSITION, dataEnd);
+            file.putLong(INDEX_OFFSET_POSITION, indexOffset);
+            file.putLong(SLOT_COUNT_POSITION, slotCount);
+            file.putLong(FULL_BUILD_TIME_POSITION, fullBuildTime);
+            file.force();
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            output.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void startRecord(int size) throws IOException {
+        if (size > segmentSize)
+            throw new IllegalArgumentException("Record of " + size + " bytes does not fit a segment");
+
+        long remaining = segmentSize - (position & (segmentSize - 1));
+        if (remaining < size) {
+            for (long i = 0; i < remaining; i++)
+                output.write(0);
+            position += remaining;
+        }
+        position += size;
+        records++;
+    }
+
+    private static boolean index(MappedFile file, long indexOffset, long slotMask, long record) {
+        int aliasLength = file.getUnsignedShort(record);
+        long hash = hash(file, record + 2, aliasLength);
+        for (long slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            long slotPosition = indexOffset + slot * 8;
+            long entry = file.getLong(slotPosition);
+            if (entry == 0) {
+                file.putLong(slotPosition, tag(hash) | record);
+                return true;
+            }
+            if ((entry & ~OFFSET_MASK) == tag(hash) && sameAlias(file, entry & OFFSET_MASK, record, aliasLength))
+                return false;
+        }
+    }
+
+    private static boolean sameAlias(MappedFile file, long record, long other, int aliasLength) {
+        if (file.getUnsignedShort(record) != aliasLength)
+            return false;
+        for (int i = 0; i < aliasLength; i++)
+            if (file.get(record + 2 + i) != file.get(other + 2 + i))
+                return false;
+        return true;
+    }
+}
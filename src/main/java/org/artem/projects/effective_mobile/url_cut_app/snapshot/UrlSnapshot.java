@@ -0,0 +1,141 @@
+package org.artem.projects.effective_mobile.url_cut_app.snapshot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Optional memory-mapped copy of all live links, consulted before the database. Each rebuild copies
+ * the live records of the previous file and appends rows created after its newest one minus
+ * {@code refresh-lookback}, which covers transactions open for up to that long; every
+ * {@code full-rebuild-interval} the file is rebuilt from the table instead. The file is reopened on
+ * startup, so a restarted instance serves from it immediately. Misses and entries that expired since
+ * the build fall back to the database.
+ */
+@Slf4j
+@Component
+public class UrlSnapshot {
+    private final URLRepository urlRepository;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration fullRebuildInterval;
+    private final Duration refreshLookback;
+    private final Counter hitCounter;
+    private final Timer buildTimer;
+    private volatile SnapshotFile current;
+
+    public UrlSnapshot(URLRepository urlRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${service.snapshot.enabled:false}") boolean enabled,
+                       @Value("${service.snapshot.path:data/urls.snapshot}") Path path,
+                       @Value("${service.snapshot.full-rebuild-interval:PT24H}") Duration fullRebuildInterval,
+                       @Value("${service.snapshot.refresh-lookback:PT15M}") Duration refreshLookback) {
+        this.urlRepository = urlRepository;
+        this.enabled = enabled;
+        this.path = path;
+        this.fullRebuildInterval = fullRebuildInterval;
+        this.refreshLookback = refreshLookback;
+        this.hitCounter = Counter.builder("urls.snapshot.hits")
+                .description("Redirects answered from the url snapshot")
+                .register(meterRegistry);
+        this.buildTimer = Timer.builder("urls.snapshot.build")
+                .description("Duration of a url snapshot build")
+                .register(meterRegistry);
+        Gauge.builder("urls.snapshot.entries", this, snapshot -> snapshot.current != null ? snapshot.current.entries() : 0)
+                .description("Links in the current url snapshot")
+                .register(meterRegistry);
+        Gauge.builder("urls.snapshot.size", this, snapshot -> snapshot.current != null ? snapshot.current.sizeInBytes() : 0)
+                .description("Size of the mapped url snapshot file")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        if (enabled && Files.exists(path))
+            this.current = open(path);
+    }
+
+    /**
+     * Returns the target if the alias is in the snapshot and has not expired, otherwise {@code null}.
+     */
+    public UrlTarget find(String alias) {
+        SnapshotFile snapshot = current;
+        if (snapshot == null)
+            return null;
+
+        UrlTarget target = snapshot.find(alias);
+        if (target == null || target.isExpiredAt(LocalDateTime.now()))
+            return null;
+
+        hitCounter.increment();
+        return target;
+    }
+
+    @Scheduled(fixedDelayString = "${service.snapshot.rebuild-interval:PT5M}",
+            initialDelayString = "${service.snapshot.initial-delay:PT0S}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (enabled)
+            buildTimer.record(this::build);
+    }
+
+    private void build() {
+        SnapshotFile previous = current;
+        long now = System.currentTimeMillis();
+        boolean full = previous == null || now - previous.fullBuildTime() >= fullRebuildInterval.toMillis();
+        LocalDateTime moment = LocalDateTime.now();
+
+        SnapshotFile built;
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (SnapshotWriter writer = new SnapshotWriter(path)) {
+                Instant createdAfter = Instant.EPOCH;
+                if (!full) {
+                    previous.copyLiveRecords(writer, moment);
+                    createdAfter = Instant.ofEpochMilli(previous.createdUntil()).minus(refreshLookback);
+                }
+                Instant createdUntil = urlRepository.forEachTargetCreatedAfter(createdAfter, (alias, target) -> {
+                    if (!target.isExpiredAt(moment) && (full || !isLive(previous.find(alias), moment)))
+                        writer.add(alias, target);
+                });
+                writer.finish(full ? createdUntil.toEpochMilli() : Math.max(createdUntil.toEpochMilli(), previous.createdUntil()),
+                        full ? now : previous.fullBuildTime());
+            }
+            built = SnapshotFile.open(path);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not build url snapshot {}", path, e);
+            return;
+        }
+        current = built;
+        log.info("Url snapshot {} built ({}) with {} links, {} bytes",
+                path, full ? "full" : "incremental", built.entries(), built.sizeInBytes());
+    }
+
+    // Only live records were copied, so an alias whose previous record expired may have been reused since
+    private static boolean isLive(UrlTarget copied, LocalDateTime moment) {
+        return copied != null && !copied.isExpiredAt(moment);
+    }
+
+    private static SnapshotFile open(Path path) {
+        try {
+            return SnapshotFile.open(path);
+        } catch (IOException e) {
+            log.warn("Could not open url snapshot {}, it will be rebuilt", path, e);
+            return null;
+        }
+    }
+}
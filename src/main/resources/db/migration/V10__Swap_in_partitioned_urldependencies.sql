@@ -0,0 +1,13 @@
+lock table urldependencies in access exclusive mode;
+
+drop trigger urldependencies_mirror on urldependencies;
+drop function urldependencies_mirror();
+
+alter sequence urldependencies_seq owned by none;
+drop table urldependencies;
+
+alter table urldependencies_partitioned rename to urldependencies;
+alter table urldependencies rename constraint urldependencies_partitioned_pkey to urldependencies_pkey;
+alter index urldependencies_partitioned_id_idx rename to urldependencies_id_idx;
+alter index urldependencies_partitioned_expiration_time_idx rename to urldependencies_expiration_time_idx;
+alter sequence urldependencies_seq owned by urldependencies.id;
@@ -0,0 +1,54 @@
+alter table urldependencies add column original_url_hash bigint;
+
+-- Only links created while deduplication is enabled carry a hash, so the index stays small otherwise.
+-- Built per partition without blocking writes, then attached to an index created on the parent only.
+create index urldependencies_original_url_hash_idx on only urldependencies (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p0_original_url_hash_idx on urldependencies_p0 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p1_original_url_hash_idx on urldependencies_p1 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p2_original_url_hash_idx on urldependencies_p2 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p3_original_url_hash_idx on urldependencies_p3 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p4_original_url_hash_idx on urldependencies_p4 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p5_original_url_hash_idx on urldependencies_p5 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p6_original_url_hash_idx on urldependencies_p6 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p7_original_url_hash_idx on urldependencies_p7 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p8_original_url_hash_idx on urldependencies_p8 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p9_original_url_hash_idx on urldependencies_p9 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p10_original_url_hash_idx on urldependencies_p10 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p11_original_url_hash_idx on urldependencies_p11 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p12_original_url_hash_idx on urldependencies_p12 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p13_original_url_hash_idx on urldependencies_p13 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p14_original_url_hash_idx on urldependencies_p14 (original_url_hash)
+    where original_url_hash is not null;
+create index concurrently urldependencies_p15_original_url_hash_idx on urldependencies_p15 (original_url_hash)
+    where original_url_hash is not null;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p0_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p1_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p2_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p3_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p4_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p5_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p6_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p7_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p8_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p9_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p10_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p11_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p12_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p13_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p14_original_url_hash_idx;
+alter index urldependencies_original_url_hash_idx attach partition urldependencies_p15_original_url_hash_idx;
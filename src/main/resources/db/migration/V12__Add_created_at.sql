@@ -0,0 +1,38 @@
+-- Stamps each link with the start of the transaction that created it, so the alias filter and the url
+-- snapshot can re-read recent rows by time instead of by id. The default is evaluated once for existing rows.
+alter table urldependencies add column created_at timestamptz not null default now();
+
+-- Built per partition without blocking writes, then attached to an index created on the parent only
+create index urldependencies_created_at_idx on only urldependencies (created_at);
+create index concurrently urldependencies_p0_created_at_idx on urldependencies_p0 (created_at);
+create index concurrently urldependencies_p1_created_at_idx on urldependencies_p1 (created_at);
+create index concurrently urldependencies_p2_created_at_idx on urldependencies_p2 (created_at);
+create index concurrently urldependencies_p3_created_at_idx on urldependencies_p3 (created_at);
+create index concurrently urldependencies_p4_created_at_idx on urldependencies_p4 (created_at);
+create index concurrently urldependencies_p5_created_at_idx on urldependencies_p5 (created_at);
+create index concurrently urldependencies_p6_created_at_idx on urldependencies_p6 (created_at);
+create index concurrently urldependencies_p7_created_at_idx on urldependencies_p7 (created_at);
+create index concurrently urldependencies_p8_created_at_idx on urldependencies_p8 (created_at);
+create index concurrently urldependencies_p9_created_at_idx on urldependencies_p9 (created_at);
+create index concurrently urldependencies_p10_created_at_idx on urldependencies_p10 (created_at);
+create index concurrently urldependencies_p11_created_at_idx on urldependencies_p11 (created_at);
+create index concurrently urldependencies_p12_created_at_idx on urldependencies_p12 (created_at);
+create index concurrently urldependencies_p13_created_at_idx on urldependencies_p13 (created_at);
+create index concurrently urldependencies_p14_created_at_idx on urldependencies_p14 (created_at);
+create index concurrently urldependencies_p15_created_at_idx on urldependencies_p15 (created_at);
+alter index urldependencies_created_at_idx attach partition urldependencies_p0_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p1_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p2_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p3_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p4_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p5_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p6_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p7_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p8_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p9_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p10_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p11_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p12_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p13_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p14_created_at_idx;
+alter index urldependencies_created_at_idx attach partition urldependencies_p15_created_at_idx;
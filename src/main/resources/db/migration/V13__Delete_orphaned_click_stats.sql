@@ -0,0 +1,2 @@
+delete from url_click_stats s
+where not exists (select 1 from urldependencies u where u.alias = s.alias);
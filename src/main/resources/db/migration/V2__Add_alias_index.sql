@@ -0,0 +1 @@
+create unique index urldependencies_alias_uindex on UrlDependencies (alias)
@@ -0,0 +1 @@
+create sequence alias_id_seq start with 1 increment by 10000
@@ -0,0 +1,5 @@
+create sequence urldependencies_seq increment by 50 owned by UrlDependencies.id;
+select setval('urldependencies_seq', coalesce((select max(id) from UrlDependencies), 0) + 1);
+
+alter table UrlDependencies alter column id drop identity;
+alter table UrlDependencies alter column id set default nextval('urldependencies_seq');
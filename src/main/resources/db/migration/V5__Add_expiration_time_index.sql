@@ -0,0 +1,2 @@
+create index urldependencies_expiration_time_idx on UrlDependencies (expiration_time)
+    where expiration_time is not null
@@ -0,0 +1,5 @@
+create table url_click_stats(
+    alias varchar primary key,
+    clicks bigint not null,
+    last_access_time timestamp not null
+)
@@ -0,0 +1 @@
+alter table urldependencies add column redirect_type varchar(32);
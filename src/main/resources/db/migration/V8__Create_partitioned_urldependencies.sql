@@ -0,0 +1,43 @@
+create table urldependencies_partitioned(
+    id bigint not null default nextval('urldependencies_seq'),
+    original_url varchar not null,
+    alias varchar primary key,
+    shortened_url varchar not null,
+    expiration_time timestamp,
+    redirect_type varchar(32)
+) partition by hash (alias);
+
+do $$
+begin
+    for remainder in 0..15 loop
+        execute format('create table urldependencies_p%s partition of urldependencies_partitioned '
+                       'for values with (modulus 16, remainder %s)', remainder, remainder);
+    end loop;
+end $$;
+
+create index urldependencies_partitioned_id_idx on urldependencies_partitioned (id);
+create index urldependencies_partitioned_expiration_time_idx on urldependencies_partitioned (expiration_time)
+    where expiration_time is not null;
+
+-- Mirrors writes to the old table until the swap, so the backfill can run while the application is serving
+create function urldependencies_mirror() returns trigger as $$
+begin
+    if tg_op in ('UPDATE', 'DELETE') then
+        delete from urldependencies_partitioned where alias = old.alias;
+    end if;
+    if tg_op in ('INSERT', 'UPDATE') then
+        insert into urldependencies_partitioned (id, original_url, alias, shortened_url, expiration_time, redirect_type)
+        values (new.id, new.original_url, new.alias, new.shortened_url, new.expiration_time, new.redirect_type)
+        on conflict (alias) do update
+        set id = excluded.id,
+            original_url = excluded.original_url,
+            shortened_url = excluded.shortened_url,
+            expiration_time = excluded.expiration_time,
+            redirect_type = excluded.redirect_type;
+    end if;
+    return null;
+end $$ language plpgsql;
+
+create trigger urldependencies_mirror
+    after insert or update or delete on urldependencies
+    for each row execute function urldependencies_mirror();
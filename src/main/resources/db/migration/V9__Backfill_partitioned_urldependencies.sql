@@ -0,0 +1,25 @@
+-- Copies existing rows in id order, committing every 10k rows so no long transaction holds back vacuum.
+-- Rows already mirrored by the trigger are newer and are kept. Each batch key-share locks the rows it
+-- copies: a row deleted before the lock is skipped, and a delete issued after it waits for the batch to
+-- commit, so the trigger removes the copy instead of the backfill resurrecting it.
+do $$
+declare
+    last_id bigint := -9223372036854775808;
+    batch_last_id bigint;
+begin
+    loop
+        select max(id) into batch_last_id
+        from (select id from urldependencies where id > last_id order by id limit 10000) batch;
+        exit when batch_last_id is null;
+
+        insert into urldependencies_partitioned (id, original_url, alias, shortened_url, expiration_time, redirect_type)
+        select id, original_url, alias, shortened_url, expiration_time, redirect_type
+        from urldependencies
+        where id > last_id and id <= batch_last_id
+        for key share
+        on conflict (alias) do nothing;
+
+        last_id := batch_last_id;
+        commit;
+    end loop;
+end $$;
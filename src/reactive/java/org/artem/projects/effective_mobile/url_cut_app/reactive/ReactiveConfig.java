@@ -0,0 +1,50 @@
+package org.artem.projects.effective_mobile.url_cut_app.reactive;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveConfig {
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * The pool is kept out of the context on purpose, see {@code UrlCutAppApplication}.
+     */
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(R2dbcProperties properties, MeterRegistry meterRegistry) {
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionPool connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                        .username(properties.getUsername())
+                        .password(properties.getPassword())
+                        .build())
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+        new ConnectionPoolMetrics(connectionPool, "reactive", Tags.empty()).bindTo(meterRegistry);
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public DisposableBean reactiveConnectionPoolDisposer(DatabaseClient reactiveDatabaseClient) {
+        return () -> ((ConnectionPool) reactiveDatabaseClient.getConnectionFactory()).dispose();
+    }
+}
@@ -0,0 +1,42 @@
+package org.artem.projects.effective_mobile.url_cut_app.reactive;
+
+import org.artem.projects.effective_mobile.url_cut_app.exceptions.AliasAlreadyUsedException;
+import org.artem.projects.effective_mobile.url_cut_app.exceptions.ExceptionResponse;
+import org.artem.projects.effective_mobile.url_cut_app.exceptions.ShortedUrlNotFoundException;
+import org.artem.projects.effective_mobile.url_cut_app.exceptions.TooManyBulkItemsException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandlerController {
+    @ExceptionHandler(ShortedUrlNotFoundException.class)
+    public ResponseEntity<ExceptionResponse> handleNotFoundExceptions(RuntimeException e,
+                                                                      ServerHttpRequest request) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(request.getPath().value(), e.getMessage(),
+                LocalDateTime.now());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(AliasAlreadyUsedException.class)
+    public ResponseEntity<ExceptionResponse> handleAliasAlreadyUsedException(RuntimeException e,
+                                                                             ServerHttpRequest request) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(request.getPath().value(), e.getMessage(),
+                LocalDateTime.now());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(TooManyBulkItemsException.class)
+    public ResponseEntity<ExceptionResponse> handleTooManyBulkItemsException(RuntimeException e,
+                                                                             ServerHttpRequest request) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(request.getPath().value(), e.getMessage(),
+                LocalDateTime.now());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+}
@@ -0,0 +1,64 @@
+package org.artem.projects.effective_mobile.url_cut_app.reactive;
+
+import org.artem.projects.effective_mobile.url_cut_app.filters.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+/**
+ * WebFlux counterpart of {@link org.artem.projects.effective_mobile.url_cut_app.filters.RateLimitFilter}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "service.rate-limit.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class ReactiveRateLimitFilter implements WebFilter {
+    private final RateLimiter rateLimiter;
+    private final String keyHeader;
+
+    public ReactiveRateLimitFilter(RateLimiter rateLimiter,
+                                   @Value("${service.rate-limit.key-header:}") String keyHeader) {
+        this.rateLimiter = rateLimiter;
+        this.keyHeader = keyHeader;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getPath().value().startsWith("/actuator"))
+            return chain.filter(exchange);
+
+        RateLimiter.Budget budget = RateLimiter.Budget.of(request.getMethod() == HttpMethod.POST,
+                request.getPath().value());
+        String key = keyHeader.isEmpty() ? null : request.getHeaders().getFirst(keyHeader);
+        Duration retryAfter = rateLimiter.admit(budget, key != null ? "key:" + key : "ip:" + remoteAddress(request));
+
+        if (!retryAfter.isZero()) {
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, RateLimiter.retryAfterSeconds(retryAfter));
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange);
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null)
+            return "unknown";
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
@@ -0,0 +1,88 @@
+package org.artem.projects.effective_mobile.url_cut_app.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.artem.projects.effective_mobile.url_cut_app.controllers.RedirectResponses;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ClickStatsResponse;
+import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ShortenResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/super-url-cutter")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveURLController {
+    private final ReactiveURLService reactiveUrlService;
+    private final RedirectResponses redirectResponses;
+
+    @Value("${service.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    @Value("${service.bulk.max-items:20000}")
+    private int bulkMaxItems;
+
+    @PostMapping("/shorten")
+    public Mono<ResponseEntity<String>> shorten(@RequestBody CreatingShortedUrlRequest request) {
+        return reactiveUrlService.shorten(request).map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/shorten/bulk", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<ShortenResult> shortenAll(@RequestBody Flux<CreatingShortedUrlRequest> requests) {
+        return shortenInChunks(requests);
+    }
+
+    @PostMapping(value = "/shorten/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ShortenResult> shortenAllStream(@RequestBody Flux<CreatingShortedUrlRequest> requests) {
+        return shortenInChunks(requests);
+    }
+
+    @GetMapping("/{alies}")
+    public Mono<ResponseEntity<byte[]>> redirect(@PathVariable String alies) {
+        return reactiveUrlService.resolveAlias(alies).map(redirectResponses::of);
+    }
+
+    @GetMapping("/{alies}/stats")
+    public Mono<ResponseEntity<ClickStatsResponse>> stats(@PathVariable String alies) {
+        return reactiveUrlService.getClickStats(alies).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Both variants are decoded as a stream, so requests past {@code max-items} are not read and a
+     * final failure result says so.
+     */
+    private Flux<ShortenResult> shortenInChunks(Flux<CreatingShortedUrlRequest> requests) {
+        return requests.take(bulkMaxItems + 1L)
+                .index()
+                .buffer(bulkChunkSize)
+                .concatMap(this::shortenChunk)
+                .flatMapIterable(results -> results);
+    }
+
+    // The request after the last allowed one is only read to tell that the body was cut off.
+    private Mono<List<ShortenResult>> shortenChunk(List<Tuple2<Long, CreatingShortedUrlRequest>> chunk) {
+        List<CreatingShortedUrlRequest> allowed = chunk.stream()
+                .filter(request -> request.getT1() < bulkMaxItems)
+                .map(Tuple2::getT2)
+                .toList();
+        Mono<List<ShortenResult>> results = allowed.isEmpty() ? Mono.just(List.of()) : reactiveUrlService.shortenAll(allowed);
+        if (allowed.size() == chunk.size())
+            return results;
+        return results.map(shortened -> {
+            List<ShortenResult> truncated = new ArrayList<>(shortened);
+            truncated.add(ShortenResult.failure(null, "Bulk requests are limited to " + bulkMaxItems + " links"));
+            return truncated;
+        });
+    }
+}
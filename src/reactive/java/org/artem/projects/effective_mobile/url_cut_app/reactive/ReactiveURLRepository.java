@@ -0,0 +1,50 @@
+package org.artem.projects.effective_mobile.url_cut_app.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveURLRepository {
+    private static final String SELECT_TARGET = """
+            select original_url, expiration_time, redirect_type
+            from urldependencies
+            where alias = $1""";
+    private static final String INSERT_IF_ALIAS_ABSENT = """
+            insert into urldependencies (original_url, alias, shortened_url, expiration_time, redirect_type)
+            values ($1, $2, $3, $4, $5)
+            on conflict do nothing""";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<UrlTarget> findTargetByAlias(String alias) {
+        return databaseClient.sql(SELECT_TARGET)
+                .bind(0, alias)
+                .map(row -> new UrlTarget(row.get(0, String.class), row.get(1, LocalDateTime.class),
+                        RedirectType.fromName(row.get(2, String.class))))
+                .one();
+    }
+
+    public Mono<Boolean> insertIfAliasAbsent(UrlDependencies url) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(INSERT_IF_ALIAS_ABSENT)
+                .bind(0, url.getOriginalUrl())
+                .bind(1, url.getAlias())
+                .bind(2, url.getShortenedUrl());
+        insert = url.getExpirationTime() != null
+                ? insert.bind(3, url.getExpirationTime())
+                : insert.bindNull(3, LocalDateTime.class);
+        insert = url.getRedirectType() != null
+                ? insert.bind(4, url.getRedirectType().name())
+                : insert.bindNull(4, String.class);
+        return insert.fetch().rowsUpdated().map(count -> count > 0);
+    }
+}
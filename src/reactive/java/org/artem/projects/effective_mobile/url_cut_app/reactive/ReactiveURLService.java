@@ -0,0 +1,117 @@
+package org.artem.projects.effective_mobile.url_cut_app.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.artem.projects.effective_mobile.url_cut_app.alias.AliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.dedup.UrlDeduplicator;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ClickStatsResponse;
+import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.dto.RedirectResolution;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ShortenResult;
+import org.artem.projects.effective_mobile.url_cut_app.exceptions.AliasAlreadyUsedException;
+import org.artem.projects.effective_mobile.url_cut_app.journal.WriteBehindQueue;
+import org.artem.projects.effective_mobile.url_cut_app.metrics.UrlServiceMetrics;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.service.URLService;
+import org.artem.projects.effective_mobile.url_cut_app.service.UrlTiers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of the redirect and shorten paths of {@code URLServiceImpl}. Both go
+ * through the same {@link UrlTiers}, so only the database calls differ. Bulk shortening and click stats
+ * are not on the hot path and run the blocking {@link URLService} on the bounded elastic scheduler,
+ * as does shortening while write-behind is on, since a journal append waits for its fsync, or while
+ * deduplication is on, since it looks the url up over JDBC.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveURLService {
+    @Value("${service.url-domain}")
+    private String domainUrl;
+
+    private final ReactiveURLRepository reactiveUrlRepository;
+    private final URLService urlService;
+    private final UrlTiers urlTiers;
+    private final AliasGenerator aliasGenerator;
+    private final UrlServiceMetrics urlServiceMetrics;
+    private final WriteBehindQueue writeBehindQueue;
+    private final UrlDeduplicator urlDeduplicator;
+
+    public Mono<String> shorten(CreatingShortedUrlRequest urlRequest) {
+        if (writeBehindQueue.isAccepting() || urlDeduplicator.isEnabled())
+            return Mono.fromCallable(() -> urlService.shorten(urlRequest))
+                    .subscribeOn(Schedulers.boundedElastic());
+
+        long startTime = System.nanoTime();
+        Mono<UrlDependencies> url;
+        if (urlRequest.alias() == null)
+            url = Mono.fromSupplier(aliasGenerator::nextAlias)
+                    .flatMap(generated -> insert(urlRequest, generated))
+                    .repeatWhenEmpty(collisions -> collisions.doOnNext(attempt -> urlServiceMetrics.aliasCollision()));
+        else if (urlTiers.isReserved(urlRequest.alias()))
+            url = Mono.error(() -> new AliasAlreadyUsedException("Alias '" + urlRequest.alias() + "' is reserved for generated links"));
+        else
+            url = insert(urlRequest, urlRequest.alias())
+                    .switchIfEmpty(Mono.error(() -> new AliasAlreadyUsedException("Alias '" + urlRequest.alias() + "' is already used")));
+        return url
+                .doOnNext(urlTiers::created)
+                .map(UrlDependencies::getShortenedUrl)
+                .doOnSuccess(shortenedUrl -> urlServiceMetrics.recordShorten(null, startTime))
+                .doOnError(e -> urlServiceMetrics.recordShorten(e, startTime));
+    }
+
+    public Mono<List<ShortenResult>> shortenAll(List<CreatingShortedUrlRequest> urlRequests) {
+        return Mono.fromCallable(() -> urlService.shortenAll(urlRequests))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<RedirectResolution> resolveAlias(String alias) {
+        long startTime = System.nanoTime();
+        RedirectResolution local = urlTiers.resolveLocal(alias);
+        if (local != null) {
+            urlServiceMetrics.recordRedirect(local, startTime);
+            return Mono.just(local);
+        }
+
+        Mono<RedirectResolution> stored = reactiveUrlRepository.findTargetByAlias(alias)
+                .map(target -> urlTiers.resolveStored(alias, target));
+        Mono<RedirectResolution> resolved = !urlTiers.hasSharedTier() ? stored
+                : Mono.fromCallable(() -> urlTiers.resolveShared(alias))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .switchIfEmpty(stored);
+        return resolved
+                .defaultIfEmpty(RedirectResolution.NOT_FOUND)
+                .doOnSuccess(resolution -> urlServiceMetrics.recordRedirect(resolution, startTime))
+                .doOnError(e -> urlServiceMetrics.recordRedirect(null, startTime));
+    }
+
+    public Mono<ClickStatsResponse> getClickStats(String alias) {
+        return Mono.fromCallable(() -> urlService.getClickStats(alias))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<UrlDependencies> insert(CreatingShortedUrlRequest urlRequest, String alias) {
+        if (writeBehindQueue.isPending(alias))
+            return Mono.empty();
+        UrlDependencies url = UrlDependencies.builder()
+                .originalUrl(urlRequest.url())
+                .alias(alias)
+                .shortenedUrl(shortenedUrl(alias))
+                .expirationTime(urlRequest.expirationTime())
+                .redirectType(urlRequest.redirectType())
+                .build();
+        return reactiveUrlRepository.insertIfAliasAbsent(url)
+                .filter(Boolean::booleanValue)
+                .map(inserted -> url);
+    }
+
+    private String shortenedUrl(String alias) {
+        return "http://" + domainUrl + "/" + alias;
+    }
+}
@@ -0,0 +1,15 @@
+package org.artem.projects.effective_mobile.url_cut_app.reactive;
+
+import org.artem.projects.effective_mobile.url_cut_app.UrlCutAppApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+public class ReactiveUrlCutAppApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(UrlCutAppApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.run(args);
+	}
+
+}
@@ -0,0 +1,57 @@
+package org.artem.projects.effective_mobile.url_cut_app.alias;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScrambledAliasGeneratorTest {
+    @Mock
+    IdBlockAllocator idBlockAllocator;
+
+    @Test
+    public void shouldProduceUniqueNonSequentialAliases() {
+        ScrambledAliasGenerator generator = new ScrambledAliasGenerator(idBlockAllocator, 42L);
+
+        Set<Long> scrambled = new HashSet<>();
+        for (long id = 1; id <= 100_000; id++)
+            assertTrue(scrambled.add(generator.scramble(id)));
+
+        assertNotEquals(generator.scramble(1) + 1, generator.scramble(2));
+    }
+
+    @Test
+    public void shouldReturnShortAlias() {
+        when(idBlockAllocator.nextId()).thenReturn(1L, (1L << 40) - 1);
+        ScrambledAliasGenerator generator = new ScrambledAliasGenerator(idBlockAllocator, 42L);
+
+        assertTrue(generator.nextAlias().length() <= 7);
+        assertTrue(generator.nextAlias().length() <= 7);
+    }
+
+    @Test
+    public void shouldEncodeBase62() {
+        assertEquals("0", Base62.encode(0));
+        assertEquals("z", Base62.encode(61));
+        assertEquals("10", Base62.encode(62));
+        assertEquals("AzL8n0Y58m7", Base62.encode(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldRecognizeEncodedAliases() {
+        assertTrue(Base62.isEncoded("0"));
+        assertTrue(Base62.isEncoded("aB3"));
+        assertTrue(Base62.isEncoded("AzL8n0Y58m7"));
+        assertFalse(Base62.isEncoded("0aB3"));
+        assertFalse(Base62.isEncoded("AzL8n0Y58m8"));
+        assertFalse(Base62.isEncoded("my-alias"));
+        assertFalse(Base62.isEncoded(""));
+    }
+}
@@ -0,0 +1,59 @@
+package org.artem.projects.effective_mobile.url_cut_app.analytics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClickEventBufferTest {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void shouldDrainRecordedClicks() {
+        ClickEventBuffer buffer = new ClickEventBuffer(meterRegistry, true, 10, 1.0, 10);
+
+        buffer.record("a");
+        buffer.record("b");
+
+        List<ClickEvent> events = new ArrayList<>();
+        assertEquals(2, buffer.drain(10, events::add));
+        assertEquals(List.of("a", "b"), events.stream().map(ClickEvent::alias).toList());
+        assertEquals(0, buffer.drain(10, events::add));
+    }
+
+    @Test
+    public void shouldDropClicks_WhenBufferIsFull() {
+        ClickEventBuffer buffer = new ClickEventBuffer(meterRegistry, true, 3, 1.0, 1);
+
+        for (int i = 0; i < 5; i++)
+            buffer.record("a");
+
+        assertEquals(3, buffer.drain(10, event -> {}));
+        assertEquals(2, meterRegistry.get("urls.clicks").tag("outcome", "dropped").counter().count());
+    }
+
+    @Test
+    public void shouldWeightSampledClicks_WhenAboveSamplingThreshold() {
+        ClickEventBuffer buffer = new ClickEventBuffer(meterRegistry, true, 1000, 0.0, 4);
+
+        for (int i = 0; i < 400; i++)
+            buffer.record("a");
+
+        List<ClickEvent> events = new ArrayList<>();
+        buffer.drain(1000, events::add);
+        assertFalse(events.isEmpty());
+        assertTrue(events.size() < 400);
+        assertTrue(events.stream().allMatch(event -> event.weight() == 4));
+    }
+
+    @Test
+    public void shouldIgnoreClicks_WhenDisabled() {
+        ClickEventBuffer buffer = new ClickEventBuffer(meterRegistry, false, 10, 1.0, 10);
+
+        buffer.record("a");
+        assertEquals(0, buffer.drain(10, event -> {}));
+    }
+}
@@ -0,0 +1,38 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AliasFilterTest {
+    @Mock
+    URLRepository urlRepository;
+
+    @Test
+    public void shouldReadBackThroughLookbackOnlyOncePerLookback() {
+        Instant newest = Instant.parse("2026-01-01T00:00:00Z");
+        when(urlRepository.forEachAliasCreatedAfter(any(), any())).thenReturn(newest);
+        AliasFilter aliasFilter = new AliasFilter(urlRepository, new SimpleMeterRegistry(), true, 0.01, 100,
+                Duration.ofMinutes(1));
+        aliasFilter.rebuild();
+
+        aliasFilter.refresh();
+        aliasFilter.refresh();
+        verify(urlRepository, times(2)).forEachAliasCreatedAfter(eq(newest), any());
+
+        ReflectionTestUtils.setField(aliasFilter, "nextSweep", 0L);
+        aliasFilter.refresh();
+        verify(urlRepository).forEachAliasCreatedAfter(eq(newest.minus(Duration.ofMinutes(1))), any());
+    }
+}
@@ -0,0 +1,41 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+    @Test
+    public void shouldContainEveryAddedKey() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++)
+            filter.put("alias" + i);
+
+        for (int i = 0; i < 10_000; i++)
+            assertTrue(filter.mightContain("alias" + i));
+        assertTrue(filter.insertions() > 9_900);
+    }
+
+    @Test
+    public void shouldNotCountKeyAddedTwice() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        assertTrue(filter.put("alias"));
+        assertFalse(filter.put("alias"));
+        assertEquals(1, filter.insertions());
+    }
+
+    @Test
+    public void shouldKeepFalsePositiveRateNearConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++)
+            filter.put("alias" + i);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++)
+            if (filter.mightContain("unknown" + i))
+                falsePositives++;
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+    }
+}
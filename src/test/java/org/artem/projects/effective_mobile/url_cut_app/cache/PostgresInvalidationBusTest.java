@@ -0,0 +1,53 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostgresInvalidationBusTest {
+    @Test
+    public void shouldDecodeWhatItEncodes() {
+        List<String> payloads = PostgresInvalidationBus.encode(Invalidation.created(List.of("a", "b")));
+
+        assertEquals(List.of("C\na\nb"), payloads);
+        assertEquals(Invalidation.created(List.of("a", "b")), PostgresInvalidationBus.decode(payloads.get(0)));
+    }
+
+    @Test
+    public void shouldSplitPayloadsUnderNotifyLimit() {
+        List<String> aliases = IntStream.range(0, 5_000).mapToObj(i -> "alias" + i).toList();
+
+        List<String> payloads = PostgresInvalidationBus.encode(Invalidation.removed(aliases));
+        assertTrue(payloads.size() > 1);
+        payloads.forEach(payload ->
+                assertTrue(payload.getBytes(StandardCharsets.UTF_8).length <= PostgresInvalidationBus.MAX_PAYLOAD_BYTES));
+        assertEquals(aliases, payloads.stream()
+                .map(PostgresInvalidationBus::decode)
+                .peek(invalidation -> assertEquals(Invalidation.Reason.REMOVED, invalidation.reason()))
+                .flatMap(invalidation -> invalidation.aliases().stream())
+                .toList());
+    }
+
+    @Test
+    public void shouldMergeConsecutiveInvalidationsWithTheSameReason() {
+        List<Invalidation> merged = PostgresInvalidationBus.coalesce(List.of(
+                Invalidation.created(List.of("a")),
+                Invalidation.created(List.of("b")),
+                Invalidation.removed(List.of("c")),
+                Invalidation.created(List.of("d"))));
+
+        assertEquals(List.of(
+                Invalidation.created(List.of("a", "b")),
+                Invalidation.removed(List.of("c")),
+                Invalidation.created(List.of("d"))), merged);
+    }
+
+    @Test
+    public void shouldRejectUnknownPayload() {
+        assertThrows(IllegalArgumentException.class, () -> PostgresInvalidationBus.decode("X\na"));
+    }
+}
@@ -0,0 +1,62 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UrlCacheTest {
+    @Mock
+    SharedUrlCache sharedCache;
+
+    @Test
+    public void shouldKeepSharedHitLocally() {
+        UrlCache urlCache = new UrlCache(100, Duration.ofMinutes(10), sharedCache);
+        UrlTarget target = new UrlTarget("https://google.com", null, null);
+        when(sharedCache.get("alias")).thenReturn(target);
+
+        assertNull(urlCache.get("alias"));
+        assertEquals(target, urlCache.getShared("alias"));
+        assertEquals(target, urlCache.get("alias"));
+        verify(sharedCache, times(1)).get("alias");
+    }
+
+    @Test
+    public void shouldWriteAndEvictBothTiers() {
+        UrlCache urlCache = new UrlCache(100, Duration.ofMinutes(10), sharedCache);
+        UrlTarget target = new UrlTarget("https://google.com", null, null);
+
+        urlCache.put("alias", target);
+        verify(sharedCache).put("alias", target);
+
+        urlCache.invalidate("alias");
+        assertNull(urlCache.get("alias"));
+        verify(sharedCache).evict(List.of("alias"));
+    }
+
+    @Test
+    public void shouldDropLocalEntriesPublishedOnBus() {
+        UrlCache urlCache = new UrlCache(100, Duration.ofMinutes(10));
+        AliasFilter aliasFilter = mock(AliasFilter.class);
+        InvalidationBus bus = new LocalInvalidationBus(List.of(urlCache, aliasFilter));
+        urlCache.put("removed", new UrlTarget("https://google.com", null, null));
+        urlCache.put("kept", new UrlTarget("https://google.com", null, null));
+
+        bus.publish(Invalidation.removed(List.of("removed")));
+        assertNull(urlCache.get("removed"));
+        assertNotNull(urlCache.get("kept"));
+        verify(aliasFilter).onInvalidation(Invalidation.removed(List.of("removed")));
+
+        bus.publish(Invalidation.RESET);
+        assertNull(urlCache.get("kept"));
+        assertFalse(urlCache.hasSharedTier());
+    }
+}
@@ -0,0 +1,54 @@
+package org.artem.projects.effective_mobile.url_cut_app.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.ClickStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UrlCacheWarmerTest {
+    @Mock
+    ClickStatsRepository clickStatsRepository;
+
+    @Mock
+    SharedUrlCache sharedCache;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void shouldPreloadMostClickedLinksLocally() {
+        UrlCache urlCache = new UrlCache(100, Duration.ofMinutes(10), sharedCache);
+        UrlTarget target = new UrlTarget("https://google.com", null, null);
+        when(clickStatsRepository.forEachMostClicked(eq(50), any(), any())).thenAnswer(invocation -> {
+            BiConsumer<String, UrlTarget> consumer = invocation.getArgument(2);
+            consumer.accept("alias", target);
+            return 1;
+        });
+
+        new UrlCacheWarmer(clickStatsRepository, urlCache, meterRegistry, true, 50).run(null);
+        assertEquals(target, urlCache.get("alias"));
+        assertEquals(1, meterRegistry.get("urls.cache.warm-up.entries").gauge().value());
+        verifyNoInteractions(sharedCache);
+    }
+
+    @Test
+    public void shouldStartCold_WhenWarmUpFails() {
+        when(clickStatsRepository.forEachMostClicked(anyInt(), any(), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertDoesNotThrow(() -> new UrlCacheWarmer(clickStatsRepository, new UrlCache(100, Duration.ofMinutes(10)),
+                meterRegistry, true, 50).run(null));
+        assertEquals(0, meterRegistry.get("urls.cache.warm-up").timer().count());
+    }
+}
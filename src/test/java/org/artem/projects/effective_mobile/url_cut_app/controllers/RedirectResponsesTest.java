@@ -0,0 +1,46 @@
+package org.artem.projects.effective_mobile.url_cut_app.controllers;
+
+import org.artem.projects.effective_mobile.url_cut_app.dto.RedirectResolution;
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectResponsesTest {
+    RedirectResponses redirectResponses = new RedirectResponses("Not Found", "Gone", RedirectType.FOUND, Duration.ofDays(30));
+
+    @Test
+    public void shouldUseDefaultTypeWithoutCaching_WhenLinkHasNoRedirectType() {
+        ResponseEntity<byte[]> response = redirectResponses.of(RedirectResolution.found(
+                new UrlTarget("https://google.com", null, null)));
+
+        assertEquals(302, response.getStatusCode().value());
+        assertEquals("https://google.com", response.getHeaders().getFirst(HttpHeaders.LOCATION));
+        assertEquals("no-store", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    public void shouldCachePermanentRedirectUntilExpiration() {
+        ResponseEntity<byte[]> response = redirectResponses.of(RedirectResolution.found(
+                new UrlTarget("https://google.com", LocalDateTime.now().plusHours(1), RedirectType.MOVED_PERMANENTLY)));
+
+        assertEquals(301, response.getStatusCode().value());
+        long maxAge = Long.parseLong(response.getHeaders().getCacheControl().replace("public, max-age=", ""));
+        assertTrue(maxAge > 3590 && maxAge <= 3600, "max-age: " + maxAge);
+    }
+
+    @Test
+    public void shouldCapPermanentRedirectCaching_WhenLinkNeverExpires() {
+        ResponseEntity<byte[]> response = redirectResponses.of(RedirectResolution.found(
+                new UrlTarget("https://google.com", null, RedirectType.PERMANENT_REDIRECT)));
+
+        assertEquals(308, response.getStatusCode().value());
+        assertEquals("public, max-age=2592000", response.getHeaders().getCacheControl());
+    }
+}
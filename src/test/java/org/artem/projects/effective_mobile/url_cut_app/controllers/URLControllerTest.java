@@ -1,6 +1,5 @@
 package org.artem.projects.effective_mobile.url_cut_app.controllers;
 
-import org.artem.projects.effective_mobile.url_cut_app.exceptions.UrlTimeExpiredLivenessException;
 import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
 import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
 import org.junit.jupiter.api.*;
@@ -18,7 +17,6 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -132,10 +130,7 @@ class URLControllerTest {
 
         String requestUrl = "/api/v1/super-url-cutter/" + alies;
         mockMvc.perform(get(requestUrl)).andExpectAll(
-                result -> assertInstanceOf(UrlTimeExpiredLivenessException.class, result.getResolvedException()),
-                status().isBadRequest(),
-                jsonPath("$.requestURI").value(requestUrl),
-                jsonPath("$.message").value("Url '" + "http://localhost:8080/api/v1/super-url-cutter/rambler-ru" + "' expired"),
-                jsonPath("$.currentTime").exists());
+                status().isGone(),
+                content().string("Gone"));
     }
 }
\ No newline at end of file
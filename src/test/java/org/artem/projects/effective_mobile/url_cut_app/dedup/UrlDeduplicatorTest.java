@@ -0,0 +1,89 @@
+package org.artem.projects.effective_mobile.url_cut_app.dedup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.artem.projects.effective_mobile.url_cut_app.cache.Invalidation;
+import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UrlDeduplicatorTest {
+    @Mock
+    URLRepository urlRepository;
+
+    UrlDeduplicator urlDeduplicator;
+
+    @BeforeEach
+    public void setUp() {
+        urlDeduplicator = new UrlDeduplicator(urlRepository, new SimpleMeterRegistry(), true, 100);
+    }
+
+    @Test
+    public void shouldNormalizeEquivalentUrls() {
+        assertEquals("https://example.com/", UrlDeduplicator.normalize(" HTTPS://Example.COM:443 "));
+        assertEquals("http://example.com:8080/a?b=C#d", UrlDeduplicator.normalize("http://EXAMPLE.com:8080/a?b=C#d"));
+        assertEquals("not a url", UrlDeduplicator.normalize("not a url"));
+        assertEquals(urlDeduplicator.hash("https://example.com"), urlDeduplicator.hash("https://EXAMPLE.com:443/"));
+        assertNotEquals(urlDeduplicator.hash("https://example.com/A"), urlDeduplicator.hash("https://example.com/a"));
+    }
+
+    @Test
+    public void shouldFindStoredLinkAndRememberIt() {
+        UrlDependencies stored = link("https://Example.com", null, null);
+        when(urlRepository.findByOriginalUrlHash(stored.getOriginalUrlHash())).thenReturn(List.of(stored));
+
+        CreatingShortedUrlRequest request = CreatingShortedUrlRequest.builder().url("https://example.com/").build();
+        assertSame(stored, urlDeduplicator.find(request));
+        assertSame(stored, urlDeduplicator.find(request));
+        verify(urlRepository, times(1)).findByOriginalUrlHash(anyLong());
+    }
+
+    @Test
+    public void shouldSkipLinksWithOtherRedirectTypeOrExpiration() {
+        urlDeduplicator.remember(link("https://example.com", null, RedirectType.MOVED_PERMANENTLY));
+        when(urlRepository.findByOriginalUrlHash(anyLong())).thenReturn(List.of(
+                link("https://example.com", LocalDateTime.now().plusDays(1), null)));
+
+        assertNull(urlDeduplicator.find(CreatingShortedUrlRequest.builder().url("https://example.com").build()));
+    }
+
+    @Test
+    public void shouldNotDeduplicateCustomAliases() {
+        assertNull(urlDeduplicator.find(CreatingShortedUrlRequest.builder().url("https://example.com").alias("mine").build()));
+        verifyNoInteractions(urlRepository);
+    }
+
+    @Test
+    public void shouldForgetRemovedLinks() {
+        UrlDependencies remembered = link("https://example.com", null, null);
+        urlDeduplicator.remember(remembered);
+        urlDeduplicator.onInvalidation(Invalidation.removed(List.of(remembered.getAlias())));
+
+        assertNull(urlDeduplicator.find(CreatingShortedUrlRequest.builder().url("https://example.com").build()));
+        verify(urlRepository).findByOriginalUrlHash(remembered.getOriginalUrlHash());
+    }
+
+    private UrlDependencies link(String originalUrl, LocalDateTime expirationTime, RedirectType redirectType) {
+        return UrlDependencies.builder()
+                .originalUrl(originalUrl)
+                .alias("aB3")
+                .shortenedUrl("http://localhost:8080/aB3")
+                .expirationTime(expirationTime)
+                .redirectType(redirectType)
+                .originalUrlHash(urlDeduplicator.hash(originalUrl))
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package org.artem.projects.effective_mobile.url_cut_app.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(meterRegistry, 0, 1, 1, Duration.ZERO);
+
+    @Test
+    public void shouldHoldPermitUntilAsyncResponseCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/super-url-cutter/shorten/bulk");
+        request.setAsyncSupported(true);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertEquals(1, inFlight());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/super-url-cutter/abc"), rejected, (req, res) -> {
+        });
+        assertEquals(503, rejected.getStatus());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    public void shouldReleasePermitWhenRequestReturns() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/super-url-cutter/abc"), new MockHttpServletResponse(),
+                (req, res) -> assertEquals(1, inFlight()));
+        assertEquals(0, inFlight());
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("http.server.requests.in-flight").gauge().value();
+    }
+}
@@ -0,0 +1,52 @@
+package org.artem.projects.effective_mobile.url_cut_app.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter(meterRegistry, 1, 3, 1, 1, 1, 3, 100);
+
+    @Test
+    public void shouldRejectOnceBurstIsSpent() {
+        for (int i = 0; i < 3; i++)
+            assertEquals(Duration.ZERO, rateLimiter.admit(RateLimiter.Budget.CREATE, "ip:10.0.0.1"));
+
+        Duration retryAfter = rateLimiter.admit(RateLimiter.Budget.CREATE, "ip:10.0.0.1");
+        assertTrue(retryAfter.compareTo(Duration.ZERO) > 0);
+        assertTrue(retryAfter.compareTo(Duration.ofSeconds(1)) <= 0);
+        assertEquals(1, meterRegistry.get("http.server.requests.rejected").tag("reason", "rate-limit-create")
+                .counter().count());
+    }
+
+    @Test
+    public void shouldKeepBudgetsSeparatePerClientAndKind() {
+        for (int i = 0; i < 3; i++)
+            rateLimiter.admit(RateLimiter.Budget.CREATE, "ip:10.0.0.1");
+
+        assertEquals(Duration.ZERO, rateLimiter.admit(RateLimiter.Budget.REDIRECT, "ip:10.0.0.1"));
+        assertEquals(Duration.ZERO, rateLimiter.admit(RateLimiter.Budget.CREATE, "ip:10.0.0.2"));
+    }
+
+    @Test
+    public void shouldChargeBulkRequestsToTheirOwnBudget() {
+        assertEquals(RateLimiter.Budget.BULK, RateLimiter.Budget.of(true, "/api/v1/super-url-cutter/shorten/bulk"));
+        assertEquals(RateLimiter.Budget.CREATE, RateLimiter.Budget.of(true, "/api/v1/super-url-cutter/shorten"));
+        assertEquals(RateLimiter.Budget.REDIRECT, RateLimiter.Budget.of(false, "/api/v1/super-url-cutter/abc"));
+
+        assertEquals(Duration.ZERO, rateLimiter.admit(RateLimiter.Budget.BULK, "ip:10.0.0.1"));
+        assertNotEquals(Duration.ZERO, rateLimiter.admit(RateLimiter.Budget.BULK, "ip:10.0.0.1"));
+        assertEquals(Duration.ZERO, rateLimiter.admit(RateLimiter.Budget.CREATE, "ip:10.0.0.1"));
+    }
+
+    @Test
+    public void shouldRoundRetryAfterUpToWholeSeconds() {
+        assertEquals("1", RateLimiter.retryAfterSeconds(Duration.ofMillis(1)));
+        assertEquals("2", RateLimiter.retryAfterSeconds(Duration.ofMillis(1001)));
+        assertEquals("1", RateLimiter.retryAfterSeconds(Duration.ZERO));
+    }
+}
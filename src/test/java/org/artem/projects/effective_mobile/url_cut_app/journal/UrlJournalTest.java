@@ -0,0 +1,110 @@
+package org.artem.projects.effective_mobile.url_cut_app.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldReplayAppendedLinksAfterReopen() throws IOException {
+        UrlDependencies expiring = url("alias1", LocalDateTime.of(2030, 1, 2, 3, 4, 5, 123_456_000), RedirectType.MOVED_PERMANENTLY);
+        UrlDependencies permanent = url("alias2", null, null);
+        permanent.setOriginalUrlHash(-42L);
+        try (UrlJournal journal = open(new ArrayList<>())) {
+            journal.append(expiring).join();
+            journal.append(permanent).join();
+        }
+
+        List<UrlDependencies> replayed = new ArrayList<>();
+        open(replayed).close();
+        assertEquals(List.of(expiring, permanent), replayed);
+    }
+
+    @Test
+    public void shouldTruncateTornTailOnReplay() throws IOException {
+        try (UrlJournal journal = open(new ArrayList<>())) {
+            journal.append(url("alias1", null, null)).join();
+        }
+        Path segment = segments().get(0);
+        long intact = Files.size(segment);
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        List<UrlDependencies> replayed = new ArrayList<>();
+        open(replayed).close();
+        assertEquals(1, replayed.size());
+        assertEquals(intact, Files.size(segment));
+    }
+
+    @Test
+    public void shouldDeleteSegmentOnceAllLinksAreReleased() throws IOException {
+        try (UrlJournal journal = new UrlJournal(directory, 1, new SimpleMeterRegistry(), (url, segment) -> {
+        })) {
+            long first = journal.append(url("alias1", null, null)).join();
+            long second = journal.append(url("alias2", null, null)).join();
+            assertNotEquals(first, second);
+            assertEquals(3, segments().size());
+
+            journal.release(first);
+            assertEquals(2, segments().size());
+        }
+
+        List<UrlDependencies> replayed = new ArrayList<>();
+        open(replayed).close();
+        assertEquals(List.of(url("alias2", null, null)), replayed);
+    }
+
+    @Test
+    public void shouldFailAppendsRacingWithClose() throws Exception {
+        UrlJournal journal = open(new ArrayList<>());
+        List<CompletableFuture<Long>> appended = new ArrayList<>();
+        Thread appender = new Thread(() -> {
+            for (int i = 0; i < 1000; i++)
+                appended.add(journal.append(url("alias" + i, null, null)));
+        });
+        appender.start();
+        journal.close();
+        appender.join();
+
+        for (CompletableFuture<Long> future : appended)
+            assertTrue(future.isDone());
+        assertThrows(CompletionException.class, () -> journal.append(url("late", null, null)).join());
+    }
+
+    private UrlJournal open(List<UrlDependencies> replayed) throws IOException {
+        return new UrlJournal(directory, 1 << 20, new SimpleMeterRegistry(), (url, segment) -> replayed.add(url));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static UrlDependencies url(String alias, LocalDateTime expirationTime, RedirectType redirectType) {
+        return UrlDependencies.builder()
+                .originalUrl("https://example.com/" + alias)
+                .alias(alias)
+                .shortenedUrl("http://localhost:8080/" + alias)
+                .expirationTime(expirationTime)
+                .redirectType(redirectType)
+                .build();
+    }
+}
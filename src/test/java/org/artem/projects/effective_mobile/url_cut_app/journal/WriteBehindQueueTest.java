@@ -0,0 +1,122 @@
+package org.artem.projects.effective_mobile.url_cut_app.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.artem.projects.effective_mobile.url_cut_app.cache.AliasFilter;
+import org.artem.projects.effective_mobile.url_cut_app.cache.Invalidation;
+import org.artem.projects.effective_mobile.url_cut_app.cache.InvalidationBus;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindQueueTest {
+    @Mock
+    URLRepository urlRepository;
+
+    @Mock
+    AliasFilter aliasFilter;
+
+    @Mock
+    InvalidationBus invalidationBus;
+
+    @TempDir
+    Path directory;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    WriteBehindQueue queue;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        lenient().doReturn(new boolean[]{true}).when(urlRepository).insertAllIfAliasAbsent(anyList());
+        queue.destroy();
+    }
+
+    @Test
+    public void shouldParkLinkThatFailsOnItsOwn() {
+        queue = open(Duration.ofHours(1));
+        UrlDependencies poisoned = url("alias1");
+        UrlDependencies healthy = url("alias2");
+        queue.submit(poisoned);
+        queue.submit(healthy);
+
+        when(urlRepository.insertAllIfAliasAbsent(anyList())).thenAnswer(invocation -> {
+            List<UrlDependencies> batch = invocation.getArgument(0);
+            if (batch.contains(poisoned))
+                throw new DataIntegrityViolationException("value too long");
+            return new boolean[]{true};
+        });
+        queue.drain();
+
+        assertFalse(queue.isPending("alias2"));
+        assertTrue(queue.isPending("alias1"));
+        assertNotNull(queue.find("alias1"));
+        assertEquals(1, meterRegistry.get("urls.write-behind.parked").gauge().value());
+        verify(aliasFilter).add("alias2");
+    }
+
+    @Test
+    public void shouldKeepBatchQueued_WhenDatabaseIsUnavailable() {
+        queue = open(Duration.ZERO);
+        queue.submit(url("alias1"));
+
+        when(urlRepository.insertAllIfAliasAbsent(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        queue.drain();
+
+        assertTrue(queue.isPending("alias1"));
+        assertEquals(0, meterRegistry.get("urls.write-behind.parked").gauge().value());
+        verify(urlRepository, times(1)).insertAllIfAliasAbsent(anyList());
+    }
+
+    @Test
+    public void shouldKeepConflictedLinkJournaled_WhenAliasHoldsAnotherTarget() throws IOException {
+        queue = open(Duration.ZERO);
+        queue.submit(url("alias1"));
+
+        when(urlRepository.insertAllIfAliasAbsent(anyList())).thenReturn(new boolean[]{false});
+        when(urlRepository.findTargetByAlias("alias1"))
+                .thenReturn(Optional.of(new UrlTarget("https://other.example.com", null, null)));
+        queue.drain();
+
+        assertFalse(queue.isPending("alias1"));
+        assertEquals(1, meterRegistry.get("urls.write-behind.conflicted").gauge().value());
+        verify(aliasFilter, never()).add("alias1");
+        verify(invalidationBus).publish(Invalidation.created(List.of("alias1")));
+
+        queue.destroy();
+        queue = open(Duration.ZERO);
+        assertTrue(queue.isPending("alias1"));
+    }
+
+    private WriteBehindQueue open(Duration parkedRetryInterval) {
+        return new WriteBehindQueue(urlRepository, aliasFilter, invalidationBus, meterRegistry, true, directory,
+                DataSize.ofMegabytes(1), 10, 100, parkedRetryInterval);
+    }
+
+    private static UrlDependencies url(String alias) {
+        return UrlDependencies.builder()
+                .originalUrl("https://example.com/" + alias)
+                .alias(alias)
+                .shortenedUrl("http://localhost:8080/" + alias)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package org.artem.projects.effective_mobile.url_cut_app.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.artem.projects.effective_mobile.url_cut_app.cache.Invalidation;
+import org.artem.projects.effective_mobile.url_cut_app.cache.InvalidationBus;
+import org.artem.projects.effective_mobile.url_cut_app.cache.UrlCache;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiredUrlSweeperTest {
+    @Mock
+    URLRepository urlRepository;
+
+    @Mock
+    UrlCache urlCache;
+
+    @Mock
+    InvalidationBus invalidationBus;
+
+    SimpleMeterRegistry meterRegistry;
+
+    ExpiredUrlSweeper sweeper;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new ExpiredUrlSweeper(urlRepository, urlCache, invalidationBus, meterRegistry, 2, 10, Duration.ZERO);
+    }
+
+    @Test
+    public void shouldDeleteInChunksUntilChunkIsNotFull() {
+        when(urlRepository.partitions()).thenReturn(List.of("urldependencies"));
+        when(urlRepository.deleteExpired(eq("urldependencies"), any(), eq(2)))
+                .thenReturn(List.of("a", "b"))
+                .thenReturn(List.of("c"));
+
+        assertEquals(3, sweeper.sweepExpired());
+        verify(urlRepository, times(2)).deleteExpired(eq("urldependencies"), any(), eq(2));
+        verify(urlCache).invalidate("c");
+        verify(invalidationBus).publish(Invalidation.removed(List.of("c")));
+        assertEquals(3, meterRegistry.get("urls.sweeper.deleted").counter().count());
+    }
+
+    @Test
+    public void shouldStopAfterMaxChunksPerRun() {
+        when(urlRepository.partitions()).thenReturn(List.of("urldependencies"));
+        when(urlRepository.deleteExpired(eq("urldependencies"), any(), eq(2))).thenReturn(List.of("a", "b"));
+
+        assertEquals(20, sweeper.sweepExpired());
+        verify(urlRepository, times(10)).deleteExpired(eq("urldependencies"), any(), eq(2));
+    }
+
+    @Test
+    public void shouldSweepEachPartitionAndResumeWhereBudgetRanOut() {
+        when(urlRepository.partitions()).thenReturn(List.of("p0", "p1", "p2"));
+        when(urlRepository.deleteExpired(eq("p0"), any(), eq(2))).thenReturn(List.of("a"));
+        when(urlRepository.deleteExpired(eq("p1"), any(), eq(2))).thenReturn(List.of("b", "c"));
+        when(urlRepository.deleteExpired(eq("p2"), any(), eq(2))).thenReturn(List.of());
+
+        assertEquals(19, sweeper.sweepExpired());
+        verify(urlRepository, times(9)).deleteExpired(eq("p1"), any(), eq(2));
+        verify(urlRepository, never()).deleteExpired(eq("p2"), any(), eq(2));
+
+        when(urlRepository.deleteExpired(eq("p1"), any(), eq(2))).thenReturn(List.of());
+        assertEquals(1, sweeper.sweepExpired());
+        verify(urlRepository, times(10)).deleteExpired(eq("p1"), any(), eq(2));
+        verify(urlRepository).deleteExpired(eq("p2"), any(), eq(2));
+        verify(urlRepository, times(2)).deleteExpired(eq("p0"), any(), eq(2));
+    }
+}
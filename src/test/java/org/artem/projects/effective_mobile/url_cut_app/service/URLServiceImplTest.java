@@ -1,38 +1,100 @@
 package org.artem.projects.effective_mobile.url_cut_app.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.artem.projects.effective_mobile.url_cut_app.alias.AliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.analytics.ClickEventBuffer;
+import org.artem.projects.effective_mobile.url_cut_app.cache.AliasFilter;
+import org.artem.projects.effective_mobile.url_cut_app.cache.Invalidation;
+import org.artem.projects.effective_mobile.url_cut_app.cache.InvalidationBus;
+import org.artem.projects.effective_mobile.url_cut_app.cache.UrlCache;
+import org.artem.projects.effective_mobile.url_cut_app.dedup.UrlDeduplicator;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ClickStatsResponse;
 import org.artem.projects.effective_mobile.url_cut_app.dto.CreatingShortedUrlRequest;
+import org.artem.projects.effective_mobile.url_cut_app.dto.RedirectResolution;
+import org.artem.projects.effective_mobile.url_cut_app.dto.ShortenResult;
 import org.artem.projects.effective_mobile.url_cut_app.exceptions.AliasAlreadyUsedException;
 import org.artem.projects.effective_mobile.url_cut_app.exceptions.ShortedUrlNotFoundException;
-import org.artem.projects.effective_mobile.url_cut_app.exceptions.UrlTimeExpiredLivenessException;
+import org.artem.projects.effective_mobile.url_cut_app.journal.WriteBehindQueue;
+import org.artem.projects.effective_mobile.url_cut_app.metrics.UrlServiceMetrics;
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
 import org.artem.projects.effective_mobile.url_cut_app.models.UrlDependencies;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.ClickStatsRepository;
 import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.artem.projects.effective_mobile.url_cut_app.snapshot.UrlSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class URLServiceImplTest {
     @Mock
     URLRepository urlRepository;
 
-    @InjectMocks
+    @Mock
+    AliasGenerator aliasGenerator;
+
+    @Mock
+    ClickEventBuffer clickEventBuffer;
+
+    @Mock
+    ClickStatsRepository clickStatsRepository;
+
+    @Mock
+    AliasFilter aliasFilter;
+
+    @Mock
+    UrlSnapshot urlSnapshot;
+
+    @Mock
+    WriteBehindQueue writeBehindQueue;
+
+    @Mock
+    InvalidationBus invalidationBus;
+
+    @Mock
+    UrlDeduplicator urlDeduplicator;
+
+    @Spy
+    UrlCache urlCache = new UrlCache(1000, Duration.ofMinutes(10));
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    UrlServiceMetrics urlServiceMetrics = new UrlServiceMetrics(meterRegistry);
+
     URLServiceImpl urlService;
 
     @BeforeEach
     public void setUp() {
-        ReflectionTestUtils.setField(urlService, "domainUrl", "localhost:8080/api/v1/super-url-cutter");
+        urlService = UrlServiceFactory.urlService()
+                .urlRepository(urlRepository)
+                .clickStatsRepository(clickStatsRepository)
+                .aliasGenerator(aliasGenerator)
+                .urlCache(urlCache)
+                .urlSnapshot(urlSnapshot)
+                .writeBehindQueue(writeBehindQueue)
+                .aliasFilter(aliasFilter)
+                .clickEventBuffer(clickEventBuffer)
+                .invalidationBus(invalidationBus)
+                .urlDeduplicator(urlDeduplicator)
+                .urlServiceMetrics(urlServiceMetrics)
+                .build();
+        lenient().when(aliasFilter.mightContain(any())).thenReturn(true);
     }
 
     @Test
@@ -41,7 +103,8 @@ class URLServiceImplTest {
                 .url("https://google.com")
                 .build();
 
-        when(urlRepository.existsByAlias(any(String.class))).thenReturn(false);
+        when(aliasGenerator.nextAlias()).thenReturn("aB3");
+        when(urlRepository.insertIfAliasAbsent(any(), any(), any(), any(), any(), any())).thenReturn(1);
 
         String result = urlService.shorten(request);
         assertNotNull(result);
@@ -55,7 +118,7 @@ class URLServiceImplTest {
                 .alias("testAlias")
                 .build();
 
-        when(urlRepository.existsByAlias("testAlias")).thenReturn(false);
+        when(urlRepository.insertIfAliasAbsent(any(), eq("testAlias"), any(), any(), any(), any())).thenReturn(1);
 
         String result = urlService.shorten(request);
         assertNotNull(result);
@@ -69,7 +132,8 @@ class URLServiceImplTest {
                 .expiredAfter(LocalDateTime.now().plusDays(1))
                 .build();
 
-        when(urlRepository.existsByAlias(any(String.class))).thenReturn(false);
+        when(aliasGenerator.nextAlias()).thenReturn("aB3");
+        when(urlRepository.insertIfAliasAbsent(any(), any(), any(), any(), any(), any())).thenReturn(1);
 
         String result = urlService.shorten(request);
         assertNotNull(result);
@@ -84,13 +148,26 @@ class URLServiceImplTest {
                 .expiredAfter(LocalDateTime.now().plusDays(1))
                 .build();
 
-        when(urlRepository.existsByAlias("testAlias")).thenReturn(false);
+        when(urlRepository.insertIfAliasAbsent(any(), eq("testAlias"), any(), any(), any(), any())).thenReturn(1);
 
         String result = urlService.shorten(request);
         assertNotNull(result);
         assertTrue(Pattern.matches("http://localhost:8080/api/v1/super-url-cutter/" + request.alias(), result));
     }
 
+    @Test
+    public void shouldStoreRedirectType_WhenRequestIncludesIt() {
+        CreatingShortedUrlRequest request = CreatingShortedUrlRequest.builder()
+                .url("https://google.com")
+                .alias("testAlias")
+                .redirectType(RedirectType.MOVED_PERMANENTLY)
+                .build();
+
+        when(urlRepository.insertIfAliasAbsent(any(), eq("testAlias"), any(), any(), eq("MOVED_PERMANENTLY"), any())).thenReturn(1);
+
+        assertEquals("http://localhost:8080/api/v1/super-url-cutter/testAlias", urlService.shorten(request));
+    }
+
     @Test
     public void shouldThrowAliasAlreadyUsedException_AfterRequestIncludesNotUniqueAlias() {
         CreatingShortedUrlRequest request = CreatingShortedUrlRequest.builder()
@@ -98,11 +175,48 @@ class URLServiceImplTest {
                 .alias("testAlias")
                 .build();
 
-        when(urlRepository.existsByAlias("testAlias")).thenReturn(true);
+        when(urlRepository.insertIfAliasAbsent(any(), eq("testAlias"), any(), any(), any(), any())).thenReturn(0);
 
         assertThrows(AliasAlreadyUsedException.class, () -> urlService.shorten(request));
     }
 
+    @Test
+    public void shouldRetryWithAnotherAlias_WhenGeneratedAliasConflicts() {
+        CreatingShortedUrlRequest request = CreatingShortedUrlRequest.builder()
+                .url("https://google.com")
+                .build();
+
+        when(aliasGenerator.nextAlias()).thenReturn("aB3", "aB4");
+        when(urlRepository.insertIfAliasAbsent(any(), any(), any(), any(), any(), any())).thenReturn(0, 1);
+
+        String result = urlService.shorten(request);
+        assertEquals("http://localhost:8080/api/v1/super-url-cutter/aB4", result);
+        verify(urlRepository, times(2)).insertIfAliasAbsent(any(), any(), any(), any(), any(), any());
+        assertEquals(1, meterRegistry.get("urls.alias.collisions").counter().count());
+    }
+
+    @Test
+    public void shouldReturnPerItemResults_WhenShortenAll() {
+        List<CreatingShortedUrlRequest> requests = List.of(
+                CreatingShortedUrlRequest.builder().url("https://google.com").build(),
+                CreatingShortedUrlRequest.builder().url("https://ya.ru").alias("usedAlias").build(),
+                CreatingShortedUrlRequest.builder().build(),
+                CreatingShortedUrlRequest.builder().url("https://bing.com").build());
+
+        when(aliasGenerator.nextAlias()).thenReturn("aB3", "aB4", "aB5");
+        when(urlRepository.insertAllIfAliasAbsent(anyList()))
+                .thenReturn(new boolean[]{true, false, false})
+                .thenReturn(new boolean[]{true});
+
+        List<ShortenResult> results = urlService.shortenAll(requests);
+        assertEquals(4, results.size());
+        assertEquals("http://localhost:8080/api/v1/super-url-cutter/aB3", results.get(0).shortenedUrl());
+        assertEquals("Alias 'usedAlias' is already used", results.get(1).error());
+        assertNotNull(results.get(2).error());
+        assertEquals("http://localhost:8080/api/v1/super-url-cutter/aB5", results.get(3).shortenedUrl());
+        verify(urlRepository, times(2)).insertAllIfAliasAbsent(anyList());
+    }
+
     @Test
     public void shouldReturnOriginalUrl() {
         UrlDependencies urlDependencies = UrlDependencies.builder()
@@ -111,25 +225,34 @@ class URLServiceImplTest {
                 .shortenedUrl("http://localhost:8080/api/v1/super-url-cutter/testAlias")
                 .build();
 
-        when(urlRepository.findByAlias(urlDependencies.getAlias())).thenReturn(Optional.of(urlDependencies));
+        when(urlRepository.findTargetByAlias(urlDependencies.getAlias()))
+                .thenReturn(Optional.of(new UrlTarget(urlDependencies.getOriginalUrl(), urlDependencies.getExpirationTime(), null)));
 
-        String result = urlService.getOriginalUrlByAlias(urlDependencies.getAlias());
-        assertNotNull(result);
-        assertEquals("https://google.com", result);
+        RedirectResolution result = urlService.resolveAlias(urlDependencies.getAlias());
+        assertEquals(RedirectResolution.Outcome.FOUND, result.outcome());
+        assertEquals("https://google.com", result.target().originalUrl());
+        verify(clickEventBuffer).record(urlDependencies.getAlias());
     }
 
     @Test
-    public void shouldThrowShortedUrlNotFoundException_WhenAliasNotFound() {
+    public void shouldReturnNotFound_WhenAliasNotFound() {
         UrlDependencies urlDependencies = UrlDependencies.builder()
                 .originalUrl("https://google.com")
                 .alias("testAliasNotFound")
                 .shortenedUrl("http://localhost:8080/api/v1/super-url-cutter/testAlias")
                 .build();
 
-        when(urlRepository.findByAlias(urlDependencies.getAlias())).thenReturn(Optional.empty());
+        when(urlRepository.findTargetByAlias(urlDependencies.getAlias())).thenReturn(Optional.empty());
 
-        assertThrows(ShortedUrlNotFoundException.class,
-                () -> urlService.getOriginalUrlByAlias(urlDependencies.getAlias()));
+        assertSame(RedirectResolution.NOT_FOUND, urlService.resolveAlias(urlDependencies.getAlias()));
+    }
+
+    @Test
+    public void shouldNotQueryRepository_WhenAliasFilterRejectsAlias() {
+        when(aliasFilter.mightContain("unknownAlias")).thenReturn(false);
+
+        assertSame(RedirectResolution.NOT_FOUND, urlService.resolveAlias("unknownAlias"));
+        verify(urlRepository, never()).findTargetByAlias(any());
     }
 
     @Test
@@ -141,15 +264,16 @@ class URLServiceImplTest {
                 .expirationTime(LocalDateTime.now().plusDays(1))
                 .build();
 
-        when(urlRepository.findByAlias(urlDependencies.getAlias())).thenReturn(Optional.of(urlDependencies));
+        when(urlRepository.findTargetByAlias(urlDependencies.getAlias()))
+                .thenReturn(Optional.of(new UrlTarget(urlDependencies.getOriginalUrl(), urlDependencies.getExpirationTime(), null)));
 
-        String result = urlService.getOriginalUrlByAlias(urlDependencies.getAlias());
-        assertNotNull(result);
-        assertEquals("https://google.com", result);
+        RedirectResolution result = urlService.resolveAlias(urlDependencies.getAlias());
+        assertEquals(RedirectResolution.Outcome.FOUND, result.outcome());
+        assertEquals("https://google.com", result.target().originalUrl());
     }
 
     @Test
-    public void shouldThrowUrlTimeExpiredLivenessException_WhenTimeExpired() {
+    public void shouldReturnExpired_WhenTimeExpired() {
         UrlDependencies urlDependencies = UrlDependencies.builder()
                 .originalUrl("https://google.com")
                 .alias("testAlias")
@@ -157,9 +281,139 @@ class URLServiceImplTest {
                 .expirationTime(LocalDateTime.now().minusDays(1))
                 .build();
 
-        when(urlRepository.findByAlias(urlDependencies.getAlias())).thenReturn(Optional.of(urlDependencies));
+        when(urlRepository.findTargetByAlias(urlDependencies.getAlias()))
+                .thenReturn(Optional.of(new UrlTarget(urlDependencies.getOriginalUrl(), urlDependencies.getExpirationTime(), null)));
+
+        assertSame(RedirectResolution.EXPIRED, urlService.resolveAlias(urlDependencies.getAlias()));
+        verify(urlRepository, never()).delete(any());
+        assertEquals(1, meterRegistry.get("urls.redirect").tag("outcome", "expired").timer().count());
+    }
+
+    @Test
+    public void shouldReturnOriginalUrlFromCache_WhenAliasResolvedBefore() {
+        UrlDependencies urlDependencies = UrlDependencies.builder()
+                .originalUrl("https://google.com")
+                .alias("testAlias")
+                .shortenedUrl("http://localhost:8080/api/v1/super-url-cutter/testAlias")
+                .build();
+
+        when(urlRepository.findTargetByAlias(urlDependencies.getAlias()))
+                .thenReturn(Optional.of(new UrlTarget(urlDependencies.getOriginalUrl(), urlDependencies.getExpirationTime(), null)));
+
+        urlService.resolveAlias(urlDependencies.getAlias());
+        RedirectResolution result = urlService.resolveAlias(urlDependencies.getAlias());
+        assertEquals("https://google.com", result.target().originalUrl());
+        verify(urlRepository, times(1)).findTargetByAlias(urlDependencies.getAlias());
+        assertEquals(1, urlCache.stats().hitCount());
+    }
+
+    @Test
+    public void shouldResolveFromSnapshotWithoutQueryingDatabase() {
+        when(urlSnapshot.find("testAlias")).thenReturn(new UrlTarget("https://google.com", null, RedirectType.MOVED_PERMANENTLY));
+
+        RedirectResolution result = urlService.resolveAlias("testAlias");
+        assertEquals("https://google.com", result.target().originalUrl());
+        assertEquals(RedirectType.MOVED_PERMANENTLY, result.target().redirectType());
+        verify(urlRepository, never()).findTargetByAlias(any());
+        verify(clickEventBuffer).record("testAlias");
+    }
+
+    @Test
+    public void shouldJournalLinkAndResolveItBeforeItIsInserted() {
+        CreatingShortedUrlRequest request = CreatingShortedUrlRequest.builder()
+                .url("https://google.com")
+                .build();
+
+        when(writeBehindQueue.isAccepting()).thenReturn(true);
+        when(aliasGenerator.isUnique()).thenReturn(true);
+        when(aliasGenerator.nextAlias()).thenReturn("aB3");
+        when(aliasFilter.mightContain("aB3")).thenReturn(false);
+        when(writeBehindQueue.submit(any())).thenReturn(true);
+        when(writeBehindQueue.find("aB3")).thenReturn(new UrlTarget("https://google.com", null, null));
+
+        assertEquals("http://localhost:8080/api/v1/super-url-cutter/aB3", urlService.shorten(request));
+        assertEquals("https://google.com", urlService.resolveAlias("aB3").target().originalUrl());
+        verify(urlRepository, never()).insertIfAliasAbsent(any(), any(), any(), any(), any(), any());
+        verify(urlRepository, never()).findTargetByAlias(any());
+    }
+
+    @Test
+    public void shouldInsertCustomAliasSynchronously_WhenWriteBehindIsOn() {
+        CreatingShortedUrlRequest request = CreatingShortedUrlRequest.builder()
+                .url("https://google.com")
+                .alias("testAlias")
+                .build();
+
+        lenient().when(writeBehindQueue.isAccepting()).thenReturn(true);
+        lenient().when(aliasGenerator.isUnique()).thenReturn(true);
+        when(urlRepository.insertIfAliasAbsent(any(), eq("testAlias"), any(), any(), any(), any())).thenReturn(1);
+
+        urlService.shorten(request);
+        verify(writeBehindQueue, never()).submit(any());
+        verify(urlRepository).insertIfAliasAbsent(any(), eq("testAlias"), any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldRejectCustomAliasThatCouldBeGenerated_WhenWriteBehindIsOn() {
+        CreatingShortedUrlRequest request = CreatingShortedUrlRequest.builder()
+                .url("https://google.com")
+                .alias("aB3")
+                .build();
+
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(aliasGenerator.canGenerate("aB3")).thenReturn(true);
+
+        assertThrows(AliasAlreadyUsedException.class, () -> urlService.shorten(request));
+        assertNotNull(urlService.shortenAll(List.of(request)).get(0).error());
+        verify(urlRepository, never()).insertIfAliasAbsent(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldReturnExistingLink_WhenUrlIsDuplicate() {
+        CreatingShortedUrlRequest request = CreatingShortedUrlRequest.builder()
+                .url("https://google.com")
+                .build();
+
+        when(urlDeduplicator.find(request)).thenReturn(UrlDependencies.builder()
+                .alias("aB3")
+                .shortenedUrl("http://localhost:8080/api/v1/super-url-cutter/aB3")
+                .build());
+
+        assertEquals("http://localhost:8080/api/v1/super-url-cutter/aB3", urlService.shorten(request));
+        verify(urlRepository, never()).insertIfAliasAbsent(any(), any(), any(), any(), any(), any());
+        verify(aliasGenerator, never()).nextAlias();
+    }
+
+    @Test
+    public void shouldInvalidateCache_WhenAliasCreated() {
+        CreatingShortedUrlRequest request = CreatingShortedUrlRequest.builder()
+                .url("https://google.com")
+                .alias("testAlias")
+                .build();
+
+        when(urlRepository.insertIfAliasAbsent(any(), eq("testAlias"), any(), any(), any(), any())).thenReturn(1);
+
+        urlService.shorten(request);
+        verify(urlCache).invalidate("testAlias");
+        verify(aliasFilter).add("testAlias");
+        verify(invalidationBus).publish(Invalidation.created(List.of("testAlias")));
+    }
+
+    @Test
+    public void shouldReturnZeroClickStats_WhenAliasExistsWithoutClicks() {
+        when(clickStatsRepository.findById("testAlias")).thenReturn(Optional.empty());
+        when(urlRepository.existsByAlias("testAlias")).thenReturn(true);
+
+        ClickStatsResponse result = urlService.getClickStats("testAlias");
+        assertEquals(0, result.clicks());
+        assertNull(result.lastAccessTime());
+    }
+
+    @Test
+    public void shouldThrowShortedUrlNotFoundException_WhenStatsRequestedForUnknownAlias() {
+        when(clickStatsRepository.findById("testAlias")).thenReturn(Optional.empty());
+        when(urlRepository.existsByAlias("testAlias")).thenReturn(false);
 
-        assertThrows(UrlTimeExpiredLivenessException.class,
-                () -> urlService.getOriginalUrlByAlias(urlDependencies.getAlias()));
+        assertThrows(ShortedUrlNotFoundException.class, () -> urlService.getClickStats("testAlias"));
     }
-}
\ No newline at end of file
+}
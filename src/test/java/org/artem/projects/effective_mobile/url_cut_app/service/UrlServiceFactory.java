@@ -0,0 +1,69 @@
+package org.artem.projects.effective_mobile.url_cut_app.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Builder;
+import org.artem.projects.effective_mobile.url_cut_app.alias.AliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.alias.RandomAliasGenerator;
+import org.artem.projects.effective_mobile.url_cut_app.analytics.ClickEventBuffer;
+import org.artem.projects.effective_mobile.url_cut_app.cache.AliasFilter;
+import org.artem.projects.effective_mobile.url_cut_app.cache.InvalidationBus;
+import org.artem.projects.effective_mobile.url_cut_app.cache.LocalInvalidationBus;
+import org.artem.projects.effective_mobile.url_cut_app.cache.UrlCache;
+import org.artem.projects.effective_mobile.url_cut_app.dedup.UrlDeduplicator;
+import org.artem.projects.effective_mobile.url_cut_app.journal.WriteBehindQueue;
+import org.artem.projects.effective_mobile.url_cut_app.metrics.UrlServiceMetrics;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.ClickStatsRepository;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.artem.projects.effective_mobile.url_cut_app.snapshot.UrlSnapshot;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Builds a {@link URLServiceImpl} for the unit tests and the benchmarks. Every collaborator left unset
+ * is a disabled instance of the real class, so only the repository has to be given.
+ */
+public final class UrlServiceFactory {
+    private static final String DOMAIN_URL = "localhost:8080/api/v1/super-url-cutter";
+
+    private UrlServiceFactory() {
+    }
+
+    @Builder(builderMethodName = "urlService")
+    private static URLServiceImpl create(URLRepository urlRepository, ClickStatsRepository clickStatsRepository,
+                                         AliasGenerator aliasGenerator, UrlCache urlCache, UrlSnapshot urlSnapshot,
+                                         WriteBehindQueue writeBehindQueue, AliasFilter aliasFilter,
+                                         ClickEventBuffer clickEventBuffer, InvalidationBus invalidationBus,
+                                         UrlDeduplicator urlDeduplicator, UrlServiceMetrics urlServiceMetrics) {
+        if (aliasGenerator == null)
+            aliasGenerator = new RandomAliasGenerator(10);
+        if (urlCache == null)
+            urlCache = new UrlCache(0, Duration.ofMinutes(10));
+        if (urlSnapshot == null)
+            urlSnapshot = new UrlSnapshot(null, new SimpleMeterRegistry(), false, Path.of("unused"), Duration.ZERO,
+                    Duration.ZERO);
+        if (writeBehindQueue == null)
+            writeBehindQueue = new WriteBehindQueue(null, null, null, new SimpleMeterRegistry(), false,
+                    Path.of("unused"), DataSize.ofMegabytes(1), 1, 1, Duration.ZERO);
+        if (aliasFilter == null)
+            aliasFilter = new AliasFilter(null, new SimpleMeterRegistry(), false, 0.01, 1, Duration.ZERO);
+        if (clickEventBuffer == null)
+            clickEventBuffer = new ClickEventBuffer(new SimpleMeterRegistry(), false, 0, 1.0, 1);
+        if (invalidationBus == null)
+            invalidationBus = new LocalInvalidationBus(List.of());
+        if (urlDeduplicator == null)
+            urlDeduplicator = new UrlDeduplicator(null, new SimpleMeterRegistry(), false, 0);
+        if (urlServiceMetrics == null)
+            urlServiceMetrics = new UrlServiceMetrics(new SimpleMeterRegistry());
+
+        UrlTiers urlTiers = new UrlTiers(urlCache, urlSnapshot, writeBehindQueue, aliasFilter, clickEventBuffer,
+                invalidationBus, urlDeduplicator, aliasGenerator);
+        URLServiceImpl urlService = new URLServiceImpl(urlRepository, urlTiers, aliasGenerator, clickStatsRepository,
+                urlServiceMetrics, aliasFilter, writeBehindQueue, urlDeduplicator);
+        ReflectionTestUtils.setField(urlService, "domainUrl", DOMAIN_URL);
+        return urlService;
+    }
+}
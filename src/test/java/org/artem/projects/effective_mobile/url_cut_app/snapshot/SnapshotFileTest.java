@@ -0,0 +1,98 @@
+package org.artem.projects.effective_mobile.url_cut_app.snapshot;
+
+import org.artem.projects.effective_mobile.url_cut_app.models.RedirectType;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldFindEveryWrittenAliasAcrossSegments() throws IOException {
+        Path path = directory.resolve("urls.snapshot");
+        LocalDateTime expiration = LocalDateTime.of(2030, 1, 2, 3, 4, 5, 123_456_000);
+        try (SnapshotWriter writer = new SnapshotWriter(path, 4096)) {
+            for (int i = 0; i < 5_000; i++)
+                writer.add("alias" + i, new UrlTarget("https://example.com/" + "x".repeat(i % 50) + i,
+                        i % 2 == 0 ? null : expiration, i % 3 == 0 ? RedirectType.MOVED_PERMANENTLY : null));
+            writer.finish(42, 7);
+        }
+
+        SnapshotFile snapshot = SnapshotFile.open(path);
+        assertEquals(5_000, snapshot.entries());
+        assertEquals(42, snapshot.createdUntil());
+        assertEquals(7, snapshot.fullBuildTime());
+        for (int i = 0; i < 5_000; i++) {
+            UrlTarget target = snapshot.find("alias" + i);
+            assertEquals("https://example.com/" + "x".repeat(i % 50) + i, target.originalUrl());
+            assertEquals(i % 2 == 0 ? null : expiration, target.expirationTime());
+            assertEquals(i % 3 == 0 ? RedirectType.MOVED_PERMANENTLY : null, target.redirectType());
+        }
+        assertNull(snapshot.find("alias5000"));
+        assertFalse(snapshot.contains("unknown"));
+    }
+
+    @Test
+    public void shouldKeepFirstRecordOfDuplicateAlias() throws IOException {
+        Path path = directory.resolve("urls.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(path)) {
+            writer.add("alias", new UrlTarget("https://first.com", null, null));
+            writer.add("alias", new UrlTarget("https://second.com", null, null));
+            writer.finish(2, 0);
+        }
+
+        SnapshotFile snapshot = SnapshotFile.open(path);
+        assertEquals(1, snapshot.entries());
+        assertEquals("https://first.com", snapshot.find("alias").originalUrl());
+    }
+
+    @Test
+    public void shouldCopyOnlyLiveRecordsIntoNextSnapshot() throws IOException {
+        Path path = directory.resolve("urls.snapshot");
+        LocalDateTime now = LocalDateTime.now();
+        try (SnapshotWriter writer = new SnapshotWriter(path)) {
+            writer.add("expired", new UrlTarget("https://expired.com", now.minusMinutes(1), null));
+            writer.add("live", new UrlTarget("https://live.com", now.plusMinutes(1), RedirectType.FOUND));
+            writer.add("forever", new UrlTarget("https://forever.com", null, null));
+            writer.finish(3, 0);
+        }
+        SnapshotFile previous = SnapshotFile.open(path);
+
+        try (SnapshotWriter writer = new SnapshotWriter(path)) {
+            previous.copyLiveRecords(writer, now);
+            writer.add("new", new UrlTarget("https://new.com", null, null));
+            writer.finish(4, previous.fullBuildTime());
+        }
+
+        SnapshotFile next = SnapshotFile.open(path);
+        assertEquals(3, next.entries());
+        assertNull(next.find("expired"));
+        assertEquals(RedirectType.FOUND, next.find("live").redirectType());
+        assertEquals("https://forever.com", next.find("forever").originalUrl());
+        assertEquals("https://new.com", next.find("new").originalUrl());
+        assertFalse(Files.exists(directory.resolve("urls.snapshot.tmp")));
+    }
+
+    @Test
+    public void shouldRejectTruncatedFile() throws IOException {
+        Path path = directory.resolve("urls.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(path)) {
+            writer.add("alias", new UrlTarget("https://example.com", null, null));
+            writer.finish(1, 0);
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertThrows(IOException.class, () -> SnapshotFile.open(path));
+    }
+}
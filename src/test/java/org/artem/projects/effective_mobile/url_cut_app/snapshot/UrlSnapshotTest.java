@@ -0,0 +1,54 @@
+package org.artem.projects.effective_mobile.url_cut_app.snapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.artem.projects.effective_mobile.url_cut_app.models.UrlTarget;
+import org.artem.projects.effective_mobile.url_cut_app.repositories.URLRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UrlSnapshotTest {
+    @Mock
+    URLRepository urlRepository;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldTakeReusedAlias_WhenPreviousRecordExpired() throws IOException {
+        Path path = directory.resolve("urls.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(path)) {
+            writer.add("mine", new UrlTarget("https://old.example.com", LocalDateTime.now().minusDays(1), null));
+            writer.add("kept", new UrlTarget("https://kept.example.com", null, null));
+            writer.finish(Instant.now().toEpochMilli(), System.currentTimeMillis());
+        }
+        UrlTarget reused = new UrlTarget("https://new.example.com", null, null);
+        when(urlRepository.forEachTargetCreatedAfter(any(), any())).thenAnswer(invocation -> {
+            BiConsumer<String, UrlTarget> consumer = invocation.getArgument(1);
+            consumer.accept("mine", reused);
+            consumer.accept("kept", new UrlTarget("https://stale.example.com", null, null));
+            return Instant.now();
+        });
+
+        UrlSnapshot snapshot = new UrlSnapshot(urlRepository, new SimpleMeterRegistry(), true, path,
+                Duration.ofDays(1), Duration.ofMinutes(15));
+        snapshot.rebuild();
+
+        assertEquals(reused, snapshot.find("mine"));
+        assertEquals("https://kept.example.com", snapshot.find("kept").originalUrl());
+    }
+}